@@ -0,0 +1,75 @@
+package com.travelvcommerce.statisticsservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.dto.RankDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy {@code aggregatedAt&json} rank cache value against the versioned Smile codec.
+ * Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankCacheCodecBenchmark {
+    @Param({"5", "50"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private RankCacheCodec rankCacheCodec;
+    private RankCacheEntry<RankDto.VideoViewRankDto> entry;
+    private String legacyValue;
+    private byte[] codecValue;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        rankCacheCodec = new RankCacheCodec(objectMapper);
+
+        List<RankDto.VideoViewRankDto> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            items.add(RankDto.VideoViewRankDto.builder()
+                    .videoId("6f1c2a4e-0c5b-4f7e-9d7a-" + String.format("%012d", i))
+                    .videoName("Travel video " + i)
+                    .views(1_000_000L - i * 997L)
+                    .build());
+        }
+        entry = new RankCacheEntry<>("2023-07-01 12:00:00.0", items);
+
+        legacyValue = entry.getAggregatedAt() + "&" + objectMapper.writeValueAsString(items);
+        codecValue = rankCacheCodec.encode(entry);
+
+        System.out.printf("%nsize=%d legacy payload=%d bytes, codec payload=%d bytes%n",
+                size, legacyValue.getBytes(StandardCharsets.UTF_8).length, codecValue.length);
+    }
+
+    @Benchmark
+    public String encodeLegacy() throws Exception {
+        return entry.getAggregatedAt() + "&" + objectMapper.writeValueAsString(entry.getItems());
+    }
+
+    @Benchmark
+    public byte[] encodeCodec() throws Exception {
+        return rankCacheCodec.encode(entry);
+    }
+
+    @Benchmark
+    public List<RankDto.VideoViewRankDto> decodeLegacy() throws Exception {
+        String aggregatedAt = legacyValue.substring(0, legacyValue.indexOf("&"));
+        String items = legacyValue.substring(aggregatedAt.length() + 1);
+        return objectMapper.readValue(items, objectMapper.getTypeFactory().constructCollectionType(List.class, RankDto.VideoViewRankDto.class));
+    }
+
+    @Benchmark
+    public RankCacheEntry<RankDto.VideoViewRankDto> decodeCodec() throws Exception {
+        return rankCacheCodec.decode(codecValue, RankDto.VideoViewRankDto.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.travelvcommerce.statisticsservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.dto.RankDto;
+import com.travelvcommerce.statisticsservice.dto.RankResponseDto;
+import com.travelvcommerce.statisticsservice.dto.ResponseDto;
+import com.travelvcommerce.statisticsservice.dto.count.ViewCountDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response building as the controllers do it: {@code convertValue} into a map wrapped in {@code ResponseDto}
+ * and then written by the message converter, against writing the payload straight to bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBuildingBenchmark {
+    @Param({"5", "50"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ViewCountDto.ViewCountResponseDto viewCountResponseDto;
+    private RankResponseDto.VideoViewRankResponseDto videoViewRankResponseDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+
+        viewCountResponseDto = ViewCountDto.ViewCountResponseDto.builder()
+                .videoId("6f1c2a4e-0c5b-4f7e-9d7a-000000000001")
+                .updatedAt("2023-07-01 12:00:00.0")
+                .build();
+
+        List<RankDto.VideoViewRankDto> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            items.add(RankDto.VideoViewRankDto.builder()
+                    .videoId("6f1c2a4e-0c5b-4f7e-9d7a-" + String.format("%012d", i))
+                    .videoName("Travel video " + i)
+                    .views(1_000_000L - i * 997L)
+                    .build());
+        }
+        videoViewRankResponseDto = RankResponseDto.VideoViewRankResponseDto.builder()
+                .aggregatedAt("2023-07-01 12:00:00.0")
+                .videoViewRank(items)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] updateResponseConvertValue() throws Exception {
+        ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(viewCountResponseDto, Map.class));
+        return objectMapper.writeValueAsBytes(responseDto);
+    }
+
+    @Benchmark
+    public byte[] rankResponseConvertValue() throws Exception {
+        ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(videoViewRankResponseDto, Map.class));
+        return objectMapper.writeValueAsBytes(responseDto);
+    }
+
+    @Benchmark
+    public byte[] rankResponseDirect() throws Exception {
+        return objectMapper.writeValueAsBytes(Collections.singletonMap("payload", videoViewRankResponseDto));
+    }
+}
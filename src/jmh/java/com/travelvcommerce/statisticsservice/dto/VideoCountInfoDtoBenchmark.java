@@ -0,0 +1,52 @@
+package com.travelvcommerce.statisticsservice.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.travelvcommerce.statisticsservice.dto.count.VideoCountInfoDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the statistics-update payload sent after every counter change and serializes it for Kafka.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VideoCountInfoDtoBenchmark {
+    private ObjectMapper objectMapper;
+    private ObjectWriter objectWriter;
+    private String videoId;
+    private long views;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectWriter = objectMapper.writerFor(VideoCountInfoDto.class);
+        videoId = "6f1c2a4e-0c5b-4f7e-9d7a-000000000001";
+        views = 123_456L;
+    }
+
+    @Benchmark
+    public VideoCountInfoDto build() {
+        return VideoCountInfoDto.builder()
+                .videoId(videoId)
+                .views(views)
+                .likes(-1L)
+                .adClicks(-1L)
+                .build();
+    }
+
+    @Benchmark
+    public String buildAndSerialize() throws Exception {
+        return objectMapper.writeValueAsString(build());
+    }
+
+    @Benchmark
+    public String buildAndSerializeWithWriter() throws Exception {
+        return objectWriter.writeValueAsString(build());
+    }
+}
@@ -0,0 +1,70 @@
+package com.travelvcommerce.statisticsservice.sketch;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory trending leaderboard: per-view add, periodic merge across instances and top-K reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopKHeavyHittersBenchmark {
+    private static final int KEYS = 10_000;
+
+    private TopKHeavyHitters heavyHitters;
+    private TopKHeavyHitters other;
+    private byte[] serialized;
+    private String[] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "6f1c2a4e-0c5b-4f7e-9d7a-" + String.format("%012d", i);
+        }
+
+        heavyHitters = new TopKHeavyHitters(new CountMinSketch(0.001, 0.01), 100);
+        other = new TopKHeavyHitters(new CountMinSketch(0.001, 0.01), 100);
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // skewed towards low indexes, like real view traffic
+            int index = (int) (KEYS * Math.pow(random.nextDouble(), 3));
+            heavyHitters.add(keys[index]);
+            other.add(keys[(index + 7) % KEYS]);
+        }
+        serialized = heavyHitters.toByteArray();
+    }
+
+    @Benchmark
+    public void add() {
+        heavyHitters.add(keys[next++ % KEYS]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public TopKHeavyHitters merge() {
+        TopKHeavyHitters merged = heavyHitters.copy();
+        merged.merge(other);
+        return merged;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<TopKHeavyHitters.HeavyHitter> topK() {
+        return heavyHitters.topK(10);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public TopKHeavyHitters deserialize() throws Exception {
+        return TopKHeavyHitters.fromByteArray(serialized);
+    }
+}
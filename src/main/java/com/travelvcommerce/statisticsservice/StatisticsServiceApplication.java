@@ -3,12 +3,14 @@ package com.travelvcommerce.statisticsservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import javax.annotation.PostConstruct;
 import java.util.TimeZone;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class StatisticsServiceApplication {
     @PostConstruct
     void started(){
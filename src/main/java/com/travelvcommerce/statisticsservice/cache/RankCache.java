@@ -0,0 +1,185 @@
+package com.travelvcommerce.statisticsservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rank entries are kept in Redis and, decoded, in a small near cache on each instance. Whoever rewrites an
+ * entry publishes its key so the other instances drop their near copy; the near cache TTL bounds how long
+ * a missed message can leave a copy stale.
+ */
+@Component
+@Slf4j
+public class RankCache {
+    private static final String INVALIDATION_CHANNEL = "rankCacheInvalidation";
+
+    private final RedisTemplate<String, byte[]> rankCacheRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final RankCacheCodec rankCacheCodec;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, RankCacheEntry<?>> nearCache;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public RankCache(RedisTemplate<String, byte[]> rankCacheRedisTemplate,
+                     StringRedisTemplate stringRedisTemplate,
+                     RedisMessageListenerContainer redisMessageListenerContainer,
+                     RankCacheCodec rankCacheCodec,
+                     MeterRegistry meterRegistry,
+                     @Value("${statistics.rank-cache.near.max-entries:10000}") long nearMaxEntries,
+                     @Value("${statistics.rank-cache.near.ttl-ms:30000}") long nearTtlMs) {
+        this.rankCacheRedisTemplate = rankCacheRedisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisMessageListenerContainer = redisMessageListenerContainer;
+        this.rankCacheCodec = rankCacheCodec;
+        this.meterRegistry = meterRegistry;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxEntries)
+                .expireAfterWrite(Duration.ofMillis(nearTtlMs))
+                .recordStats()
+                .build();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "rankNearCache");
+        redisMessageListenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public <T> RankCacheEntry<T> get(String key, Class<T> itemType) {
+        RankCacheEntry<T> entry = getNear(key);
+        if (entry != null) {
+            return entry;
+        }
+
+        entry = decode(key, rankCacheRedisTemplate.opsForValue().get(key), itemType);
+        if (entry != null) {
+            nearCache.put(key, entry);
+        }
+        return entry;
+    }
+
+    // near hits are served locally; the remaining keys are read from Redis in one MGET
+    public List<RankCacheEntry<?>> getAll(List<String> keys, List<Class<?>> itemTypes) {
+        List<RankCacheEntry<?>> entries = new ArrayList<>();
+        List<Integer> missing = new ArrayList<>();
+        List<String> missingKeys = new ArrayList<>();
+
+        for (int i = 0; i < keys.size(); i++) {
+            RankCacheEntry<?> entry = getNear(keys.get(i));
+            entries.add(entry);
+            if (entry == null) {
+                missing.add(i);
+                missingKeys.add(keys.get(i));
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return entries;
+        }
+
+        List<byte[]> values = rankCacheRedisTemplate.opsForValue().multiGet(missingKeys);
+
+        for (int i = 0; i < missing.size(); i++) {
+            int index = missing.get(i);
+            RankCacheEntry<?> entry = decode(keys.get(index), values == null ? null : values.get(i), itemTypes.get(index));
+            if (entry != null) {
+                nearCache.put(keys.get(index), entry);
+            }
+            entries.set(index, entry);
+        }
+
+        return entries;
+    }
+
+    public void put(String key, RankCacheEntry<?> entry, long ttlSeconds) {
+        nearCache.put(key, entry);
+
+        try {
+            rankCacheRedisTemplate.opsForValue().set(key, rankCacheCodec.encode(entry), ttlSeconds, TimeUnit.SECONDS);
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + " " + key);
+        } catch (Exception e) {
+            log.error("Error caching rank value of {}", key, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RankCacheEntry<T> getNear(String key) {
+        RankCacheEntry<T> entry = (RankCacheEntry<T>) nearCache.getIfPresent(key);
+        countLookup(key, "near", entry == null ? "miss" : "hit");
+        return entry;
+    }
+
+    private <T> RankCacheEntry<T> decode(String key, byte[] value, Class<T> itemType) {
+        if (value == null) {
+            countLookup(key, "redis", "miss");
+            return null;
+        }
+
+        RankCacheEntry<T> entry;
+        try {
+            entry = rankCacheCodec.decode(value, itemType);
+        } catch (Exception e) {
+            log.error("Error decoding rank cache value of {}", key, e);
+            countLookup(key, "redis", "error");
+            return null;
+        }
+
+        countLookup(key, "redis", "hit");
+
+        if (rankCacheCodec.isLegacy(value)) {
+            migrate(key, entry);
+        }
+
+        return entry;
+    }
+
+    // messages are "<instanceId> <key>"; an instance already holds what it published itself
+    private void onInvalidation(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(' ');
+        if (separator < 0 || body.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+
+        nearCache.invalidate(body.substring(separator + 1));
+    }
+
+    // keys are "<family>:<id>", so the family tag stays low-cardinality
+    private void countLookup(String key, String level, String result) {
+        int separator = key.indexOf(':');
+        String family = separator < 0 ? key : key.substring(0, separator);
+        meterRegistry.counter("statistics.rank.cache", "family", family, "level", level, "result", result).increment();
+    }
+
+    // rewrites a legacy entry in the current format without extending its expiry
+    private void migrate(String key, RankCacheEntry<?> entry) {
+        try {
+            byte[] value = rankCacheCodec.encode(entry);
+            rankCacheRedisTemplate.execute(connection -> connection.stringCommands()
+                    .set(key.getBytes(StandardCharsets.UTF_8), value, Expiration.keepTtl(), RedisStringCommands.SetOption.SET_IF_PRESENT), true);
+        } catch (Exception e) {
+            log.error("Error migrating rank cache value of {}", key, e);
+        }
+    }
+}
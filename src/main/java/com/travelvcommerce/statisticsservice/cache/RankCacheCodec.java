@@ -0,0 +1,79 @@
+package com.travelvcommerce.statisticsservice.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes rank cache entries as a version byte followed by a Smile document.
+ * <p>
+ * Version 1 is the legacy {@code aggregatedAt + "&" + json} string; it is still decoded so that entries written
+ * before the upgrade keep serving until they are rewritten. Readers and writers are built once per item type.
+ */
+@Component
+public class RankCacheCodec {
+    public static final byte VERSION = 2;
+
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper jsonMapper;
+    private final ObjectWriter smileWriter;
+    private final Map<Class<?>, ObjectReader> smileReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> legacyReaders = new ConcurrentHashMap<>();
+
+    public RankCacheCodec(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        this.smileMapper = new ObjectMapper(new SmileFactory())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.smileWriter = smileMapper.writerFor(RankCacheEntry.class);
+    }
+
+    public byte[] encode(RankCacheEntry<?> entry) throws IOException {
+        byte[] smile = smileWriter.writeValueAsBytes(entry);
+        byte[] value = new byte[smile.length + 1];
+        value[0] = VERSION;
+        System.arraycopy(smile, 0, value, 1, smile.length);
+        return value;
+    }
+
+    public <T> RankCacheEntry<T> decode(byte[] value, Class<T> itemType) throws IOException {
+        if (isLegacy(value)) {
+            return decodeLegacy(value, itemType);
+        }
+
+        return smileReader(itemType).readValue(value, 1, value.length - 1);
+    }
+
+    public boolean isLegacy(byte[] value) {
+        return value.length == 0 || value[0] != VERSION;
+    }
+
+    private <T> RankCacheEntry<T> decodeLegacy(byte[] value, Class<T> itemType) throws IOException {
+        String legacyValue = new String(value, StandardCharsets.UTF_8);
+        int separator = legacyValue.indexOf("&");
+        if (separator < 0) {
+            throw new IOException("Unrecognized rank cache value");
+        }
+
+        List<T> items = legacyReader(itemType).readValue(legacyValue.substring(separator + 1));
+        return new RankCacheEntry<>(legacyValue.substring(0, separator), items);
+    }
+
+    private ObjectReader smileReader(Class<?> itemType) {
+        return smileReaders.computeIfAbsent(itemType, type ->
+                smileMapper.readerFor(smileMapper.getTypeFactory().constructParametricType(RankCacheEntry.class, type)));
+    }
+
+    private ObjectReader legacyReader(Class<?> itemType) {
+        return legacyReaders.computeIfAbsent(itemType, type ->
+                jsonMapper.readerFor(jsonMapper.getTypeFactory().constructCollectionType(List.class, type)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.travelvcommerce.statisticsservice.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankCacheEntry<T> {
+    private String aggregatedAt;
+    private List<T> items;
+    // the size the items were queried with; fewer items than this means the list is complete, 0 if not recorded
+    private int limit;
+
+    public RankCacheEntry(String aggregatedAt, List<T> items) {
+        this(aggregatedAt, items, 0);
+    }
+}
@@ -0,0 +1,117 @@
+package com.travelvcommerce.statisticsservice.cache;
+
+import com.travelvcommerce.statisticsservice.repository.VideoRepository;
+import com.travelvcommerce.statisticsservice.schedule.ClusterJobScheduler;
+import com.travelvcommerce.statisticsservice.schedule.JobLease;
+import com.travelvcommerce.statisticsservice.service.StatisticsRankService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recomputes a seller's cached ranks after writes to their videos. Writes only mark the video locally;
+ * each instance resolves its marks to sellers and adds them to a shared set of dirty sellers, due
+ * debounce-ms after the first mark. Later marks don't move the due time, so a seller is recomputed at
+ * most once per debounce-ms however busy it is. Only the lease holder recomputes.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RankRefresher {
+    private static final String DIRTY_SELLERS_KEY = "rankDirtySellers";
+    private static final int VIDEO_QUERY_CHUNK = 1000;
+
+    private final Set<String> dirtyVideoIds = ConcurrentHashMap.newKeySet();
+    private final VideoRepository videoRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final StatisticsRankService statisticsRankService;
+    private final ClusterJobScheduler clusterJobScheduler;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${statistics.rank-refresh.debounce-ms:5000}")
+    private long debounceMs;
+    @Value("${statistics.rank-refresh.batch-size:100}")
+    private int batchSize;
+
+    public void markDirty(String videoId) {
+        dirtyVideoIds.add(videoId);
+    }
+
+    @Scheduled(fixedDelayString = "${statistics.rank-refresh.interval-ms:1000}")
+    public void refresh() {
+        try {
+            markDirtySellers();
+        } catch (Exception e) {
+            log.error("Error marking dirty sellers", e);
+        }
+
+        clusterJobScheduler.runExclusive("rankRefresh", lease -> {
+            int refreshed;
+            do {
+                refreshed = refreshDueSellers(lease);
+            } while (refreshed == batchSize && lease.isHeld());
+        });
+    }
+
+    private void markDirtySellers() {
+        List<String> videoIds = new ArrayList<>();
+        for (Iterator<String> iterator = dirtyVideoIds.iterator(); iterator.hasNext(); ) {
+            videoIds.add(iterator.next());
+            iterator.remove();
+        }
+        if (videoIds.isEmpty()) {
+            return;
+        }
+
+        Set<ZSetOperations.TypedTuple<String>> sellers = new HashSet<>();
+        double due = System.currentTimeMillis() + debounceMs;
+        for (int from = 0; from < videoIds.size(); from += VIDEO_QUERY_CHUNK) {
+            for (String sellerId : videoRepository.findSellerIdsByVideoIdIn(videoIds.subList(from, Math.min(from + VIDEO_QUERY_CHUNK, videoIds.size())))) {
+                sellers.add(new DefaultTypedTuple<>(sellerId, due));
+            }
+        }
+
+        if (!sellers.isEmpty()) {
+            // NX keeps the due time of a seller that is already dirty
+            redisTemplate.opsForZSet().addIfAbsent(DIRTY_SELLERS_KEY, sellers);
+        }
+    }
+
+    private int refreshDueSellers(JobLease lease) {
+        Set<String> due = redisTemplate.opsForZSet().rangeByScore(DIRTY_SELLERS_KEY, 0, System.currentTimeMillis(), 0, batchSize);
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+
+        for (String sellerId : due) {
+            if (!lease.isHeld()) {
+                break;
+            }
+
+            // removed first, so a write during the recompute marks the seller again
+            Long removed = redisTemplate.opsForZSet().remove(DIRTY_SELLERS_KEY, sellerId);
+            if (removed == null || removed == 0) {
+                continue;
+            }
+
+            try {
+                statisticsRankService.refreshSellerRanks(sellerId);
+                meterRegistry.counter("statistics.rank.refresh", "result", "success").increment();
+            } catch (Exception e) {
+                log.error("Error refreshing ranks of seller {}", sellerId, e);
+                meterRegistry.counter("statistics.rank.refresh", "result", "failure").increment();
+            }
+        }
+
+        return due.size();
+    }
+}
@@ -0,0 +1,96 @@
+package com.travelvcommerce.statisticsservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the serialized JSON body of rank responses per cache key, reusing it for as long as the version
+ * (the entry's {@code aggregatedAt}) is unchanged, and answers matching {@code If-None-Match} with 304.
+ * The body is the same document the controllers produce through {@code ResponseDto}.
+ */
+@Component
+@Slf4j
+public class RankResponseCache {
+    private final ObjectMapper objectMapper;
+    private final Map<String, CachedResponse> responses;
+
+    public RankResponseCache(ObjectMapper objectMapper,
+                             @Value("${statistics.response-cache.max-entries:10000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.responses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public ResponseEntity<?> respond(String cacheKey, String version, Object payload, String ifNoneMatch) {
+        String etag = "\"" + DigestUtils.md5DigestAsHex((cacheKey + "@" + version).getBytes(StandardCharsets.UTF_8)) + "\"";
+
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        CachedResponse cachedResponse = responses.get(cacheKey);
+        if (cachedResponse == null || !cachedResponse.etag.equals(etag)) {
+            cachedResponse = new CachedResponse(etag, serialize(payload));
+            responses.put(cacheKey, cachedResponse);
+        }
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cachedResponse.body);
+    }
+
+    private byte[] serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(Collections.singletonMap("payload", payload));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @AllArgsConstructor
+    private static class CachedResponse {
+        private final String etag;
+        private final byte[] body;
+    }
+}
@@ -0,0 +1,46 @@
+package com.travelvcommerce.statisticsservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+    @Value("${statistics.rank-aggregation.pool-size:4}")
+    private int rankAggregationPoolSize;
+
+    @Value("${statistics.rank-aggregation.queue-capacity:100}")
+    private int rankAggregationQueueCapacity;
+
+    @Value("${statistics.export.pool-size:4}")
+    private int exportPoolSize;
+
+    @Value("${statistics.export.queue-capacity:16}")
+    private int exportQueueCapacity;
+
+    // bounded so a burst of dashboard cache misses cannot flood the database; overflow runs on the caller
+    @Bean
+    public ThreadPoolTaskExecutor rankAggregationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(rankAggregationPoolSize);
+        executor.setMaxPoolSize(rankAggregationPoolSize);
+        executor.setQueueCapacity(rankAggregationQueueCapacity);
+        executor.setThreadNamePrefix("rank-aggregation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // each export holds a replica connection until the last row is written, so only a few run at once
+    @Bean
+    public ThreadPoolTaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exportPoolSize);
+        executor.setMaxPoolSize(exportPoolSize);
+        executor.setQueueCapacity(exportQueueCapacity);
+        executor.setThreadNamePrefix("export-");
+        return executor;
+    }
+}
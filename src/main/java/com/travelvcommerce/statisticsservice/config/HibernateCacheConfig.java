@@ -0,0 +1,60 @@
+package com.travelvcommerce.statisticsservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.travelvcommerce.statisticsservice.entity.AdVideo;
+import com.travelvcommerce.statisticsservice.entity.Tag;
+import com.travelvcommerce.statisticsservice.entity.Video;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Second-level cache regions, kept in local Caffeine caches. Every region is created here with a size and
+ * time bound; missing_cache_strategy is fail, so a newly cached entity needs its regions added.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    private static final String NATURAL_ID_SUFFIX = "##NaturalId";
+
+    @Value("${statistics.entity-cache.max-entries:100000}")
+    private long maxEntries;
+    @Value("${statistics.entity-cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // a provider of its own, so a second context in the same JVM does not find these regions already created
+        CachingProvider cachingProvider = new CaffeineCachingProvider();
+        CacheManager cacheManager = cachingProvider.getCacheManager(cachingProvider.getDefaultURI(), getClass().getClassLoader());
+
+        for (Class<?> entityClass : new Class<?>[]{Video.class, Tag.class, AdVideo.class}) {
+            cacheManager.createCache(entityClass.getName(), regionConfiguration());
+            cacheManager.createCache(entityClass.getName() + NATURAL_ID_SUFFIX, regionConfiguration());
+        }
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    // the TTL bounds staleness from rows changed outside Hibernate or read from a lagging replica
+    private CaffeineConfiguration<Object, Object> regionConfiguration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate stores its own immutable cache entries; copying them on every access is not needed
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        return configuration;
+    }
+}
@@ -1,10 +1,12 @@
 package com.travelvcommerce.statisticsservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,6 +24,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String BOOTSTRAP_SERVERS;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // producer configuration
     @Bean
     public ProducerFactory<String, String> producerFactory() {
@@ -31,7 +36,9 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
 
-        return new DefaultKafkaProducerFactory<>(configProps);
+        DefaultKafkaProducerFactory<String, String> producerFactory = new DefaultKafkaProducerFactory<>(configProps);
+        producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return producerFactory;
     }
 
     @Bean
@@ -50,7 +57,10 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, OffsetResetStrategy.EARLIEST.name().toLowerCase());
 
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        // exposes the client metrics, including kafka.consumer.fetch.manager.records.lag.max
+        DefaultKafkaConsumerFactory<String, String> consumerFactory = new DefaultKafkaConsumerFactory<>(configProps);
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
     }
 
     @Bean
@@ -60,6 +70,13 @@ public class KafkaConfig {
 
         kafkaListenerContainerFactory.setConsumerFactory(consumerFactory());
         kafkaListenerContainerFactory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // retry topic containers are built from this factory too, so every redelivery is counted here
+        kafkaListenerContainerFactory.setRecordInterceptor(record -> {
+            if (record.topic().contains("-retry")) {
+                meterRegistry.counter("statistics.kafka.retry", "topic", record.topic()).increment();
+            }
+            return record;
+        });
         return kafkaListenerContainerFactory;
     }
 }
\ No newline at end of file
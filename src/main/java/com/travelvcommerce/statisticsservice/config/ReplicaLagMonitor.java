@@ -0,0 +1,49 @@
+package com.travelvcommerce.statisticsservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+public class ReplicaLagMonitor {
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagSeconds;
+    private volatile boolean replicaAvailable = false;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagSeconds) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    // a configured replica without replication status (e.g. a standalone local instance) is treated as caught up
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        boolean available;
+
+        try {
+            List<Map<String, Object>> status = replicaJdbcTemplate.queryForList("SHOW SLAVE STATUS");
+            if (status.isEmpty()) {
+                available = true;
+            } else {
+                Object secondsBehindMaster = status.get(0).get("Seconds_Behind_Master");
+                available = secondsBehindMaster != null && ((Number) secondsBehindMaster).longValue() <= maxLagSeconds;
+            }
+        } catch (Exception e) {
+            log.error("Error checking replica lag", e);
+            available = false;
+        }
+
+        if (available != replicaAvailable) {
+            log.warn("Replica reads {}", available ? "enabled" : "disabled, falling back to primary");
+        }
+        replicaAvailable = available;
+    }
+}
@@ -0,0 +1,32 @@
+package com.travelvcommerce.statisticsservice.config;
+
+import com.travelvcommerce.statisticsservice.redis.RedisRoundTripInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    private final ThreadPoolTaskExecutor exportExecutor;
+    private final RedisRoundTripInterceptor redisRoundTripInterceptor;
+
+    @Value("${statistics.export.timeout-ms:600000}")
+    private long exportTimeoutMs;
+
+    // streaming exports are the only async responses
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor);
+        configurer.setDefaultTimeout(exportTimeoutMs);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(redisRoundTripInterceptor);
+    }
+}
@@ -0,0 +1,64 @@
+package com.travelvcommerce.statisticsservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.dto.ResponseDto;
+import com.travelvcommerce.statisticsservice.dto.export.ExportFormat;
+import com.travelvcommerce.statisticsservice.service.StatisticsExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/statistics-service")
+public class StatisticsExportController {
+    private final StatisticsExportService statisticsExportService;
+    private final ObjectMapper objectMapper;
+
+    // declared as StreamingResponseBody so MVC streams it; errors are written through the same type
+    @GetMapping("/export/{sellerId}")
+    public ResponseEntity<StreamingResponseBody> exportSellerStatistics(@RequestHeader("Authorization") String id,
+                                                                        @PathVariable(name = "sellerId") String sellerId,
+                                                                        @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        if (!id.equals(sellerId)) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto("Invalid id");
+            return error(HttpStatus.UNAUTHORIZED, responseDto);
+        }
+
+        ExportFormat exportFormat;
+
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return error(HttpStatus.BAD_REQUEST, responseDto);
+        }
+
+        // the status line is already sent when rows are written, so a failure can only cut the body short
+        StreamingResponseBody body = outputStream -> {
+            try {
+                statisticsExportService.exportSellerStatistics(sellerId, exportFormat, outputStream);
+            } catch (Exception e) {
+                log.error("Error exporting statistics of seller {}", sellerId, e);
+                throw e;
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statistics-" + sellerId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, ResponseDto responseDto) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> objectMapper.writeValue(outputStream, responseDto));
+    }
+}
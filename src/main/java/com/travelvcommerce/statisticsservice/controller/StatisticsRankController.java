@@ -1,12 +1,15 @@
 package com.travelvcommerce.statisticsservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.cache.RankResponseCache;
 import com.travelvcommerce.statisticsservice.dto.RankResponseDto;
 import com.travelvcommerce.statisticsservice.dto.ResponseDto;
 import com.travelvcommerce.statisticsservice.service.StatisticsRankService;
+import com.travelvcommerce.statisticsservice.service.TrendingVideoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,13 +21,17 @@ import java.util.Map;
 @RequestMapping("/statistics-service")
 public class StatisticsRankController {
     private final StatisticsRankService statisticsRankService;
+    private final TrendingVideoService trendingVideoService;
+    private final RankResponseCache rankResponseCache;
     private final ObjectMapper objectMapper;
 
     @GetMapping("/rank/videos/views/{sellerId}")
-    public ResponseEntity<ResponseDto> getViewRank(@RequestHeader("Authorization") String id,
-                                                   @PathVariable(name = "sellerId") String sellerId,
-                                                   @RequestParam(name = "size", defaultValue = "5") int size,
-                                                   @RequestParam(name = "refresh", defaultValue = "false") boolean refresh) {
+    public ResponseEntity<?> getViewRank(@RequestHeader("Authorization") String id,
+                                         @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                         @PathVariable(name = "sellerId") String sellerId,
+                                         @RequestParam(name = "size", defaultValue = "5") int size,
+                                         @RequestParam(name = "refresh", defaultValue = "false") boolean refresh,
+                                         @RequestParam(name = "cursor", required = false) String cursor) {
         if (!id.equals(sellerId)) {
             ResponseDto responseDto = ResponseDto.buildResponseDto("Invalid id");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseDto);
@@ -33,21 +40,32 @@ public class StatisticsRankController {
         RankResponseDto.VideoViewRankResponseDto videoViewRankResponseDto;
 
         try {
-            videoViewRankResponseDto = statisticsRankService.getVideoViewRank(sellerId, size, refresh);
+            videoViewRankResponseDto = cursor == null
+                    ? statisticsRankService.getVideoViewRank(sellerId, size, refresh)
+                    : statisticsRankService.getVideoViewRankAfter(sellerId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseDto);
         } catch (Exception e) {
             ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
         }
 
-        ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(videoViewRankResponseDto, Map.class));
-        return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        if (cursor != null) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(videoViewRankResponseDto, Map.class));
+            return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        }
+
+        return rankResponseCache.respond("videoViewRank:" + sellerId + ":" + size, videoViewRankResponseDto.getAggregatedAt(), videoViewRankResponseDto, ifNoneMatch);
     }
 
     @GetMapping("/rank/tags/views/{sellerId}")
-    public ResponseEntity<ResponseDto> getTagViewRank(@RequestHeader("Authorization") String id,
-                                                      @PathVariable(name = "sellerId") String sellerId,
-                                                      @RequestParam(name = "size", defaultValue = "5") int size,
-                                                      @RequestParam(name = "refresh", defaultValue = "false") boolean refresh) {
+    public ResponseEntity<?> getTagViewRank(@RequestHeader("Authorization") String id,
+                                            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                            @PathVariable(name = "sellerId") String sellerId,
+                                            @RequestParam(name = "size", defaultValue = "5") int size,
+                                            @RequestParam(name = "refresh", defaultValue = "false") boolean refresh,
+                                            @RequestParam(name = "cursor", required = false) String cursor) {
         if (!id.equals(sellerId)) {
             ResponseDto responseDto = ResponseDto.buildResponseDto("Invalid id");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseDto);
@@ -56,21 +74,32 @@ public class StatisticsRankController {
         RankResponseDto.TagViewRankResponseDto tagRankResponseDto;
 
         try {
-            tagRankResponseDto = statisticsRankService.getTagViewRank(sellerId, size, refresh);
+            tagRankResponseDto = cursor == null
+                    ? statisticsRankService.getTagViewRank(sellerId, size, refresh)
+                    : statisticsRankService.getTagViewRankAfter(sellerId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseDto);
         } catch (Exception e) {
             ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
         }
 
-        ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(tagRankResponseDto, Map.class));
-        return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        if (cursor != null) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(tagRankResponseDto, Map.class));
+            return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        }
+
+        return rankResponseCache.respond("tagViewRank:" + sellerId + ":" + size, tagRankResponseDto.getAggregatedAt(), tagRankResponseDto, ifNoneMatch);
     }
 
     @GetMapping("/rank/videos/likes/{sellerId}")
-    public ResponseEntity<ResponseDto> getLikeRank(@RequestHeader("Authorization") String id,
-                                                   @PathVariable(name = "sellerId") String sellerId,
-                                                   @RequestParam(name = "size", defaultValue = "5") int size,
-                                                   @RequestParam(name = "refresh", defaultValue = "false") boolean refresh) {
+    public ResponseEntity<?> getLikeRank(@RequestHeader("Authorization") String id,
+                                         @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                         @PathVariable(name = "sellerId") String sellerId,
+                                         @RequestParam(name = "size", defaultValue = "5") int size,
+                                         @RequestParam(name = "refresh", defaultValue = "false") boolean refresh,
+                                         @RequestParam(name = "cursor", required = false) String cursor) {
         if (!id.equals(sellerId)) {
             ResponseDto responseDto = ResponseDto.buildResponseDto("Invalid id");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseDto);
@@ -79,21 +108,32 @@ public class StatisticsRankController {
         RankResponseDto.VideoLikeRankResponseDto videoLikeRankResponseDto;
 
         try {
-            videoLikeRankResponseDto = statisticsRankService.getVideoLikeRank(sellerId, size, refresh);
+            videoLikeRankResponseDto = cursor == null
+                    ? statisticsRankService.getVideoLikeRank(sellerId, size, refresh)
+                    : statisticsRankService.getVideoLikeRankAfter(sellerId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseDto);
         } catch (Exception e) {
             ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
         }
 
-        ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(videoLikeRankResponseDto, Map.class));
-        return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        if (cursor != null) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(videoLikeRankResponseDto, Map.class));
+            return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        }
+
+        return rankResponseCache.respond("videoLikeRank:" + sellerId + ":" + size, videoLikeRankResponseDto.getAggregatedAt(), videoLikeRankResponseDto, ifNoneMatch);
     }
 
     @GetMapping("/rank/videos/adClicks/{sellerId}")
-    public ResponseEntity<ResponseDto> getAdClickRank(@RequestHeader("Authorization") String id,
-                                                      @PathVariable(name = "sellerId") String sellerId,
-                                                      @RequestParam(name = "size", defaultValue = "5") int size,
-                                                      @RequestParam(name = "refresh", defaultValue = "false") boolean refresh) {
+    public ResponseEntity<?> getAdClickRank(@RequestHeader("Authorization") String id,
+                                            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                            @PathVariable(name = "sellerId") String sellerId,
+                                            @RequestParam(name = "size", defaultValue = "5") int size,
+                                            @RequestParam(name = "refresh", defaultValue = "false") boolean refresh,
+                                            @RequestParam(name = "cursor", required = false) String cursor) {
         if (!id.equals(sellerId)) {
             ResponseDto responseDto = ResponseDto.buildResponseDto("Invalid id");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseDto);
@@ -102,14 +142,66 @@ public class StatisticsRankController {
         RankResponseDto.VideoAdClickRankResponseDto videoAdClickRankResponseDto;
 
         try {
-            videoAdClickRankResponseDto = statisticsRankService.getAdClickRank(sellerId, size, refresh);
+            videoAdClickRankResponseDto = cursor == null
+                    ? statisticsRankService.getAdClickRank(sellerId, size, refresh)
+                    : statisticsRankService.getAdClickRankAfter(sellerId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseDto);
+        } catch (Exception e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
+        }
+
+        if (cursor != null) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(videoAdClickRankResponseDto, Map.class));
+            return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        }
+
+        return rankResponseCache.respond("adClickRank:" + sellerId + ":" + size, videoAdClickRankResponseDto.getAggregatedAt(), videoAdClickRankResponseDto, ifNoneMatch);
+    }
+
+    @GetMapping("/dashboard/{sellerId}")
+    public ResponseEntity<?> getDashboard(@RequestHeader("Authorization") String id,
+                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                          @PathVariable(name = "sellerId") String sellerId,
+                                          @RequestParam(name = "size", defaultValue = "5") int size) {
+        if (!id.equals(sellerId)) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto("Invalid id");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseDto);
+        }
+
+        RankResponseDto.DashboardResponseDto dashboardResponseDto;
+
+        try {
+            dashboardResponseDto = statisticsRankService.getDashboard(sellerId, size);
+        } catch (Exception e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
+        }
+
+        return rankResponseCache.respond("dashboard:" + sellerId + ":" + size, dashboardVersion(dashboardResponseDto), dashboardResponseDto, ifNoneMatch);
+    }
+
+    @GetMapping("/rank/videos/trending")
+    public ResponseEntity<?> getTrendingVideoRank(@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                  @RequestParam(name = "size", defaultValue = "10") int size) {
+        RankResponseDto.TrendingVideoRankResponseDto trendingVideoRankResponseDto;
+
+        try {
+            trendingVideoRankResponseDto = trendingVideoService.getTrendingVideoRank(size);
         } catch (Exception e) {
             ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
         }
 
-        ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(videoAdClickRankResponseDto, Map.class));
-        return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        return rankResponseCache.respond("trendingVideoRank:" + size, trendingVideoRankResponseDto.getAggregatedAt(), trendingVideoRankResponseDto, ifNoneMatch);
     }
 
+    private String dashboardVersion(RankResponseDto.DashboardResponseDto dashboardResponseDto) {
+        return dashboardResponseDto.getVideoViewRank().getAggregatedAt() + "|"
+                + dashboardResponseDto.getTagViewRank().getAggregatedAt() + "|"
+                + dashboardResponseDto.getVideoLikeRank().getAggregatedAt() + "|"
+                + dashboardResponseDto.getVideoAdClickRank().getAggregatedAt();
+    }
 }
@@ -0,0 +1,45 @@
+package com.travelvcommerce.statisticsservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.dto.ResponseDto;
+import com.travelvcommerce.statisticsservice.dto.SellerSummaryDto;
+import com.travelvcommerce.statisticsservice.service.StatisticsSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/statistics-service")
+public class StatisticsSummaryController {
+    private final StatisticsSummaryService statisticsSummaryService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/summary/{sellerId}")
+    public ResponseEntity<?> getSellerSummary(@RequestHeader("Authorization") String id,
+                                              @PathVariable(name = "sellerId") String sellerId,
+                                              @RequestParam(name = "days", defaultValue = "7") int days) {
+        if (!id.equals(sellerId)) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto("Invalid id");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseDto);
+        }
+
+        SellerSummaryDto sellerSummaryDto;
+
+        try {
+            sellerSummaryDto = statisticsSummaryService.getSellerSummary(sellerId, days);
+        } catch (IllegalArgumentException e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseDto);
+        } catch (Exception e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
+        }
+
+        ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(sellerSummaryDto, Map.class));
+        return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+    }
+}
@@ -4,11 +4,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.travelvcommerce.statisticsservice.dto.*;
 import com.travelvcommerce.statisticsservice.dto.count.AdClickCountDto;
 import com.travelvcommerce.statisticsservice.dto.count.LikeCountDto;
-import com.travelvcommerce.statisticsservice.dto.count.VideoCountInfoDto;
 import com.travelvcommerce.statisticsservice.dto.count.ViewCountDto;
+import com.travelvcommerce.statisticsservice.exception.LikeStoreUnavailableException;
 import com.travelvcommerce.statisticsservice.exception.UserAlreadyClickedAdException;
 import com.travelvcommerce.statisticsservice.exception.UserDidNotLikedVideoException;
-import com.travelvcommerce.statisticsservice.service.KafkaVideoInfoProducerService;
 import com.travelvcommerce.statisticsservice.exception.UserAlreadyLikedVideoException;
 import com.travelvcommerce.statisticsservice.exception.UserAlreadyViewedVideoException;
 import com.travelvcommerce.statisticsservice.service.StatisticsUpdateService;
@@ -28,17 +27,15 @@ import java.util.NoSuchElementException;
 @RequestMapping("/statistics-service")
 public class StatisticsUpdateController {
     private final StatisticsUpdateService statisticsUpdateService;
-    private final KafkaVideoInfoProducerService kafkaVideoInfoProducerService;
     private final ObjectMapper objectMapper;
 
     @PutMapping("/{videoId}/views")
     public ResponseEntity<ResponseDto> increaseViewCount(@PathVariable("videoId") String videoId,
                                                          @RequestBody ViewCountDto.ViewCountRequestDto viewCountRequestDto) {
         String userId = viewCountRequestDto.getUserId();
-        VideoCountInfoDto videoCountInfoDto;
 
         try {
-            videoCountInfoDto = statisticsUpdateService.increaseViewCount(videoId, userId);
+            statisticsUpdateService.increaseViewCount(videoId, userId);
         } catch (UserAlreadyViewedVideoException e) {
             ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
             return ResponseEntity.status(HttpStatus.OK).body(responseDto);
@@ -50,8 +47,7 @@ public class StatisticsUpdateController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
         }
 
-        kafkaVideoInfoProducerService.updateVideoStatistics(videoCountInfoDto);
-
+        // the view is counted on the next counter flush, so there is no current view count to return
         ViewCountDto.ViewCountResponseDto viewCountResponseDto = ViewCountDto.ViewCountResponseDto.builder()
                 .videoId(videoId)
                 .updatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
@@ -66,12 +62,11 @@ public class StatisticsUpdateController {
                                                          @RequestBody LikeCountDto.LikeRequestDto likeRequestDto) {
         String userId = likeRequestDto.getUserId();
         String action = likeRequestDto.getAction();
-        VideoCountInfoDto videoCountInfoDto;
         try {
             if (action.equals("like")) {
-                videoCountInfoDto = statisticsUpdateService.increaseVideoLikeCount(videoId, userId);
+                statisticsUpdateService.increaseVideoLikeCount(videoId, userId);
             } else if (action.equals("dislike")) {
-                videoCountInfoDto = statisticsUpdateService.decreaseVideoLikeCount(videoId, userId);
+                statisticsUpdateService.decreaseVideoLikeCount(videoId, userId);
             } else {
                 throw new IllegalArgumentException("action must be like or dislike");
             }
@@ -84,13 +79,14 @@ public class StatisticsUpdateController {
         } catch (NoSuchElementException e) {
             ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseDto);
+        } catch (LikeStoreUnavailableException e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(responseDto);
         } catch (RuntimeException e) {
             ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
         }
 
-        kafkaVideoInfoProducerService.updateVideoStatistics(videoCountInfoDto);
-
         LikeCountDto.LikeResponseDto likeResponseDto = LikeCountDto.LikeResponseDto.builder()
                 .videoId(videoId)
                 .updatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
@@ -103,10 +99,9 @@ public class StatisticsUpdateController {
     public ResponseEntity<ResponseDto> increaseAdClickCount(@PathVariable("adId") String adId,
                                                             @RequestBody AdClickCountDto.AdClickRequestDto adClickRequestDto) {
         String userId = adClickRequestDto.getUserId();
-        VideoCountInfoDto videoCountInfoDto;
 
         try {
-            videoCountInfoDto = statisticsUpdateService.increaseVideoAdClickCount(adId, userId);
+            statisticsUpdateService.increaseVideoAdClickCount(adId, userId);
         } catch (UserAlreadyClickedAdException e) {
             ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
             return ResponseEntity.status(HttpStatus.OK).body(responseDto);
@@ -118,8 +113,7 @@ public class StatisticsUpdateController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
         }
 
-        kafkaVideoInfoProducerService.updateVideoStatistics(videoCountInfoDto);
-
+        // like views, the click reaches the ad click count on the next counter flush
         AdClickCountDto.AdClickResponseDto adClickResponseDto = AdClickCountDto.AdClickResponseDto.builder()
                 .adId(adId)
                 .updatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
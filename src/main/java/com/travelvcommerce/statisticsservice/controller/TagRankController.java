@@ -1,15 +1,19 @@
 package com.travelvcommerce.statisticsservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.cache.RankResponseCache;
 import com.travelvcommerce.statisticsservice.dto.RankResponseDto;
 import com.travelvcommerce.statisticsservice.dto.ResponseDto;
 import com.travelvcommerce.statisticsservice.service.TagRankService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
@@ -19,33 +23,56 @@ import java.util.Map;
 @RestController
 public class TagRankController {
     private final TagRankService tagRankService;
+    private final RankResponseCache rankResponseCache;
     private final ObjectMapper objectMapper;
 
     @GetMapping("/rank/tags/region")
-    public ResponseEntity<ResponseDto> getTagRankByRegion() {
+    public ResponseEntity<?> getTagRankByRegion(@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                @RequestParam(name = "size", defaultValue = "10") int size,
+                                                @RequestParam(name = "cursor", required = false) String cursor) {
         RankResponseDto.TagRankResponseDto tagRankResponseDto;
         try {
-            tagRankResponseDto = tagRankService.getTagRankByRegion();
+            tagRankResponseDto = cursor == null
+                    ? tagRankService.getTagRankByRegion(size)
+                    : tagRankService.getTagRankByRegionAfter(cursor, size);
+        } catch (IllegalArgumentException e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseDto);
         } catch (Exception e) {
             ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
         }
-        ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(tagRankResponseDto, Map.class));
 
-        return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        if (cursor != null) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(tagRankResponseDto, Map.class));
+            return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        }
+
+        return rankResponseCache.respond("tagRegionRank:" + size, tagRankResponseDto.getAggregatedAt(), tagRankResponseDto, ifNoneMatch);
     }
 
     @GetMapping("/rank/tags/theme")
-    public ResponseEntity<ResponseDto> getTagRankByTheme() {
+    public ResponseEntity<?> getTagRankByTheme(@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               @RequestParam(name = "size", defaultValue = "10") int size,
+                                               @RequestParam(name = "cursor", required = false) String cursor) {
         RankResponseDto.TagRankResponseDto tagRankResponseDto;
         try {
-            tagRankResponseDto = tagRankService.getTagRankByTheme();
+            tagRankResponseDto = cursor == null
+                    ? tagRankService.getTagRankByTheme(size)
+                    : tagRankService.getTagRankByThemeAfter(cursor, size);
+        } catch (IllegalArgumentException e) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseDto);
         } catch (Exception e) {
             ResponseDto responseDto = ResponseDto.buildResponseDto(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseDto);
         }
-        ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(tagRankResponseDto, Map.class));
 
-        return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        if (cursor != null) {
+            ResponseDto responseDto = ResponseDto.buildResponseDto(objectMapper.convertValue(tagRankResponseDto, Map.class));
+            return ResponseEntity.status(HttpStatus.OK).body(responseDto);
+        }
+
+        return rankResponseCache.respond("tagThemeRank:" + size, tagRankResponseDto.getAggregatedAt(), tagRankResponseDto, ifNoneMatch);
     }
 }
@@ -0,0 +1,180 @@
+package com.travelvcommerce.statisticsservice.counter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers view and ad click increments in memory and writes them to MariaDB in batches.
+ * <p>
+ * Every increment is appended to the {@link CounterJournal} and acknowledged only after its group fsync,
+ * so a killed pod loses nothing it acknowledged. A flush drains the buffer and takes the journal position under
+ * the same lock, which makes the drained deltas exactly the records up to that position. The position is
+ * committed as the node's checkpoint with the batch, and segments wholly before it are deleted afterwards.
+ * The journal is not rotated by a flush, only when a segment is full. On startup, before the web server takes
+ * traffic, records after the checkpoint are replayed.
+ */
+@Component
+@Slf4j
+public class CounterBuffer {
+    private final CounterFlushWriter counterFlushWriter;
+    private final Path journalDirectory;
+    private final int segmentRecords;
+    private final long syncTimeoutMillis;
+    private final Timer syncTimer;
+    private final Timer flushTimer;
+
+    private final Object lock = new Object();
+    private final Deque<FlushBatch> unflushed = new ArrayDeque<>();
+    private Map<CounterKey, Long> pending = new HashMap<>();
+    private CounterJournal journal;
+    private String nodeId;
+
+    public CounterBuffer(CounterFlushWriter counterFlushWriter,
+                         MeterRegistry meterRegistry,
+                         @Value("${statistics.counter-buffer.journal-dir}") String journalDirectory,
+                         @Value("${statistics.counter-buffer.segment-records:1048576}") int segmentRecords,
+                         @Value("${statistics.counter-buffer.sync-timeout-ms:5000}") long syncTimeoutMillis) {
+        this.counterFlushWriter = counterFlushWriter;
+        this.journalDirectory = Paths.get(journalDirectory);
+        this.segmentRecords = segmentRecords;
+        this.syncTimeoutMillis = syncTimeoutMillis;
+        this.syncTimer = meterRegistry.timer("statistics.counter-buffer.sync");
+        this.flushTimer = meterRegistry.timer("statistics.counter-buffer.flush");
+        meterRegistry.gauge("statistics.counter-buffer.pending", this, CounterBuffer::pendingCount);
+    }
+
+    @PostConstruct
+    void replay() throws IOException {
+        nodeId = nodeId();
+        journal = new CounterJournal(journalDirectory, segmentRecords);
+
+        CounterJournal.Position checkpoint = counterFlushWriter.checkpoint(nodeId);
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        CounterJournal.Position last = null;
+        int replayed = 0;
+        for (Map.Entry<Long, List<CounterJournal.JournalRecord>> segment : journal.readSealedSegments().entrySet()) {
+            List<CounterJournal.JournalRecord> records = segment.getValue();
+            last = new CounterJournal.Position(segment.getKey(), records.size());
+
+            for (int i = 0; i < records.size(); i++) {
+                if (new CounterJournal.Position(segment.getKey(), i).compareTo(checkpoint) < 0) {
+                    continue;
+                }
+                CounterJournal.JournalRecord record = records.get(i);
+                deltas.merge(new CounterKey(record.getMetric(), record.getTargetId()), (long) record.getDelta(), Long::sum);
+                replayed++;
+            }
+        }
+
+        if (last == null) {
+            return;
+        }
+        if (!deltas.isEmpty()) {
+            log.info("Replaying {} counter journal records up to {}", replayed, last);
+            counterFlushWriter.write(nodeId, last, deltas);
+        }
+        journal.deleteThrough(last.getSegmentSequence());
+    }
+
+    public void increment(CounterMetric metric, long targetId) {
+        long position;
+        synchronized (lock) {
+            try {
+                position = journal.append(metric, targetId, 1, System.currentTimeMillis());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pending.merge(new CounterKey(metric, targetId), 1L, Long::sum);
+        }
+
+        long start = System.nanoTime();
+        try {
+            journal.awaitSynced(position, syncTimeoutMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for counter journal sync");
+        }
+        syncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${statistics.counter-buffer.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        synchronized (lock) {
+            if (!pending.isEmpty()) {
+                unflushed.addLast(new FlushBatch(journal.position(), pending));
+                pending = new HashMap<>();
+            }
+        }
+
+        // batches are written oldest first; a failed batch stays queued and blocks newer ones until it succeeds
+        while (!unflushed.isEmpty()) {
+            FlushBatch batch = unflushed.peekFirst();
+            long start = System.nanoTime();
+            try {
+                if (!counterFlushWriter.write(nodeId, batch.position, batch.deltas)) {
+                    log.warn("Counter journal {} was already flushed", batch.position);
+                }
+            } catch (Exception e) {
+                log.error("Error flushing {} buffered counters, retrying on next flush", batch.deltas.size(), e);
+                return;
+            }
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            unflushed.removeFirst();
+
+            try {
+                journal.deleteThrough(batch.position.getSegmentSequence() - 1);
+            } catch (IOException e) {
+                log.error("Error deleting flushed counter journal segments", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    private int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    // the checkpoint is per journal directory, so the id lives next to the segments it describes
+    private String nodeId() throws IOException {
+        Path nodeIdPath = journalDirectory.resolve("node-id");
+        Files.createDirectories(journalDirectory);
+        if (!Files.exists(nodeIdPath)) {
+            Files.write(nodeIdPath, UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return new String(Files.readAllBytes(nodeIdPath), StandardCharsets.UTF_8).trim();
+    }
+
+    private static class FlushBatch {
+        private final CounterJournal.Position position;
+        private final Map<CounterKey, Long> deltas;
+
+        FlushBatch(CounterJournal.Position position, Map<CounterKey, Long> deltas) {
+            this.position = position;
+            this.deltas = deltas;
+        }
+    }
+}
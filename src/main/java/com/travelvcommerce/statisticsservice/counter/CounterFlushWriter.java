@@ -0,0 +1,186 @@
+package com.travelvcommerce.statisticsservice.counter;
+
+import com.travelvcommerce.statisticsservice.dto.count.VideoCountInfoDto;
+import com.travelvcommerce.statisticsservice.service.KafkaVideoInfoProducerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Applies a batch of buffered increments, the resulting statistics-update events and the node's journal
+ * checkpoint in one transaction. Rows are updated in primary key order so concurrent flushes from
+ * several nodes lock them in the same order. Tag and seller totals are summed per tag and per seller and
+ * written last, one row each, in tag id and seller id order. Events carry the video's current view, like and
+ * ad click totals, read by the same query that resolves the batch's video and seller ids.
+ */
+@Component
+@RequiredArgsConstructor
+public class CounterFlushWriter {
+    private static final int EVENT_QUERY_CHUNK = 1000;
+    // a video can have several ads, so its ad click total is summed over all of them
+    private static final String VIDEO_COUNTS = "vvc.view_count, vlc.like_count, " +
+            "(SELECT COALESCE(SUM(total.click_count), 0) FROM ad_click_counts total WHERE total.video_id = v.video_id) AS ad_click_count";
+    private static final RowMapper<CounterJournal.Position> POSITION = (resultSet, rowNum) ->
+            new CounterJournal.Position(resultSet.getLong("segment_sequence"), resultSet.getInt("record_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaVideoInfoProducerService kafkaVideoInfoProducerService;
+
+    public CounterJournal.Position checkpoint(String nodeId) {
+        List<CounterJournal.Position> positions = jdbcTemplate.query(
+                "SELECT segment_sequence, record_count FROM counter_journal_checkpoints WHERE node_id = ?", POSITION, nodeId);
+        return positions.isEmpty() ? new CounterJournal.Position(0, 0) : positions.get(0);
+    }
+
+    /**
+     * Returns false if the batch was already applied, i.e. the checkpoint is at or past its position.
+     */
+    public boolean write(String nodeId, CounterJournal.Position position, Map<CounterKey, Long> deltas) {
+        return transactionTemplate.execute(status -> {
+            List<CounterJournal.Position> checkpoint = jdbcTemplate.query(
+                    "SELECT segment_sequence, record_count FROM counter_journal_checkpoints WHERE node_id = ? FOR UPDATE", POSITION, nodeId);
+            if (!checkpoint.isEmpty() && checkpoint.get(0).compareTo(position) >= 0) {
+                return false;
+            }
+
+            Map<Long, Long> views = new TreeMap<>();
+            Map<Long, Long> adClicks = new TreeMap<>();
+            deltas.forEach((key, delta) -> (key.getMetric() == CounterMetric.VIEW ? views : adClicks).put(key.getTargetId(), delta));
+
+            Map<String, Long> tagViews = new TreeMap<>();
+            Map<String, Long> sellerViews = new TreeMap<>();
+            Map<String, Long> sellerAdClicks = new TreeMap<>();
+            if (!views.isEmpty()) {
+                applyViews(views, tagViews, sellerViews);
+            }
+            if (!adClicks.isEmpty()) {
+                applyAdClicks(adClicks, sellerAdClicks);
+            }
+            if (!tagViews.isEmpty()) {
+                applyTagStats(tagViews);
+            }
+            if (!sellerViews.isEmpty() || !sellerAdClicks.isEmpty()) {
+                applySellerStats(sellerViews, sellerAdClicks);
+            }
+
+            jdbcTemplate.update("INSERT INTO counter_journal_checkpoints (node_id, segment_sequence, record_count, updated_at) " +
+                    "VALUES (?, ?, ?, NOW(6)) " +
+                    "ON DUPLICATE KEY UPDATE segment_sequence = VALUES(segment_sequence), record_count = VALUES(record_count), " +
+                    "updated_at = VALUES(updated_at)",
+                    nodeId, position.getSegmentSequence(), position.getRecords());
+            return true;
+        });
+    }
+
+    private void applyViews(Map<Long, Long> views, Map<String, Long> tagViews, Map<String, Long> sellerViews) {
+        List<Object[]> rows = rows(views);
+        jdbcTemplate.batchUpdate("UPDATE video_view_counts vvc JOIN videos v ON v.video_view_count_id = vvc.id " +
+                "SET vvc.view_count = vvc.view_count + ? WHERE v.id = ?", rows);
+        jdbcTemplate.batchUpdate("UPDATE tag_view_counts tvc JOIN videos v ON v.video_id = tvc.video_id " +
+                "SET tvc.view_count = tvc.view_count + ? WHERE v.id = ?", rows);
+        jdbcTemplate.batchUpdate("UPDATE seller_video_stats svs JOIN videos v ON v.video_id = svs.video_id " +
+                "SET svs.view_count = svs.view_count + ? WHERE v.id = ?", rows);
+        jdbcTemplate.batchUpdate("UPDATE seller_tag_stats sts JOIN videos v ON v.seller_id = sts.seller_id " +
+                "JOIN tag_view_counts tvc ON tvc.video_id = v.video_id AND tvc.tag_id = sts.tag_id " +
+                "SET sts.view_count = sts.view_count + ? WHERE v.id = ?", rows);
+
+        for (List<Long> ids : chunks(views)) {
+            namedParameterJdbcTemplate.query("SELECT v.id, v.video_id, v.seller_id, " + VIDEO_COUNTS + " FROM videos v " +
+                            "JOIN video_view_counts vvc ON vvc.id = v.video_view_count_id " +
+                            "JOIN video_like_counts vlc ON vlc.id = v.video_like_count_id WHERE v.id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids),
+                    resultSet -> {
+                        sellerViews.merge(resultSet.getString("seller_id"), views.get(resultSet.getLong("id")), Long::sum);
+                        publish(resultSet);
+                    });
+            namedParameterJdbcTemplate.query("SELECT v.id, tvc.tag_id FROM videos v " +
+                            "JOIN tag_view_counts tvc ON tvc.video_id = v.video_id WHERE v.id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids),
+                    resultSet -> {
+                        tagViews.merge(resultSet.getString("tag_id"), views.get(resultSet.getLong("id")), Long::sum);
+                    });
+        }
+    }
+
+    private void applyAdClicks(Map<Long, Long> adClicks, Map<String, Long> sellerAdClicks) {
+        List<Object[]> rows = rows(adClicks);
+        jdbcTemplate.batchUpdate("UPDATE ad_click_counts SET click_count = click_count + ? WHERE id = ?", rows);
+        jdbcTemplate.batchUpdate("UPDATE seller_video_stats svs JOIN ad_click_counts acc ON acc.video_id = svs.video_id " +
+                "SET svs.ad_click_count = svs.ad_click_count + ? WHERE acc.id = ?", rows);
+
+        for (List<Long> ids : chunks(adClicks)) {
+            namedParameterJdbcTemplate.query("SELECT acc.id, v.video_id, v.seller_id, " + VIDEO_COUNTS + " FROM ad_click_counts acc " +
+                            "JOIN videos v ON v.video_id = acc.video_id " +
+                            "JOIN video_view_counts vvc ON vvc.id = v.video_view_count_id " +
+                            "JOIN video_like_counts vlc ON vlc.id = v.video_like_count_id WHERE acc.id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids),
+                    resultSet -> {
+                        sellerAdClicks.merge(resultSet.getString("seller_id"), adClicks.get(resultSet.getLong("id")), Long::sum);
+                        publish(resultSet);
+                    });
+        }
+    }
+
+    private void publish(ResultSet resultSet) throws SQLException {
+        kafkaVideoInfoProducerService.updateVideoStatistics(VideoCountInfoDto.builder()
+                .videoId(resultSet.getString("video_id"))
+                .views(resultSet.getLong("view_count"))
+                .likes(resultSet.getLong("like_count"))
+                .adClicks(resultSet.getLong("ad_click_count"))
+                .build());
+    }
+
+    private void applyTagStats(Map<String, Long> tagViews) {
+        List<Object[]> rows = new ArrayList<>();
+        tagViews.forEach((tagId, views) -> rows.add(new Object[]{views, tagId}));
+        jdbcTemplate.batchUpdate("UPDATE tag_stats SET view_count = view_count + ? WHERE tag_id = ?", rows);
+    }
+
+    private void applySellerStats(Map<String, Long> sellerViews, Map<String, Long> sellerAdClicks) {
+        Set<String> sellerIds = new TreeSet<>(sellerViews.keySet());
+        sellerIds.addAll(sellerAdClicks.keySet());
+
+        LocalDate statDate = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> dailyRows = new ArrayList<>();
+        for (String sellerId : sellerIds) {
+            long views = sellerViews.getOrDefault(sellerId, 0L);
+            long adClicks = sellerAdClicks.getOrDefault(sellerId, 0L);
+            rows.add(new Object[]{sellerId, views, adClicks});
+            dailyRows.add(new Object[]{sellerId, statDate, views, adClicks});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO seller_stats (seller_id, view_count, ad_click_count) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE view_count = view_count + VALUES(view_count), " +
+                "ad_click_count = ad_click_count + VALUES(ad_click_count)", rows);
+        jdbcTemplate.batchUpdate("INSERT INTO seller_daily_stats (seller_id, stat_date, view_count, ad_click_count) VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE view_count = view_count + VALUES(view_count), " +
+                "ad_click_count = ad_click_count + VALUES(ad_click_count)", dailyRows);
+    }
+
+    private List<Object[]> rows(Map<Long, Long> deltas) {
+        List<Object[]> rows = new ArrayList<>();
+        deltas.forEach((id, delta) -> rows.add(new Object[]{delta, id}));
+        return rows;
+    }
+
+    private List<List<Long>> chunks(Map<Long, Long> deltas) {
+        List<Long> ids = new ArrayList<>(deltas.keySet());
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += EVENT_QUERY_CHUNK) {
+            chunks.add(ids.subList(from, Math.min(from + EVENT_QUERY_CHUNK, ids.size())));
+        }
+        return chunks;
+    }
+}
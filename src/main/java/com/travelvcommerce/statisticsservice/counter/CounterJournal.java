@@ -0,0 +1,293 @@
+package com.travelvcommerce.statisticsservice.counter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of counter increments in memory-mapped segment files.
+ * <p>
+ * Records are 32 bytes: magic, metric, target id, delta, timestamp and a CRC32 of the fields in between.
+ * Segments are pre-sized and zero-filled, so reading stops at the first record without the magic or with a
+ * bad checksum, which also discards a record torn by a crash. A single sync thread forces the mapped pages
+ * to disk for every appender waiting at that point (group fsync), so callers pay one fsync per batch rather
+ * than one per increment. If an fsync fails the journal stops accepting records and every waiting appender
+ * fails with it, since nothing appended from then on could be acknowledged as durable. Segment sequence numbers only grow and a segment is sealed when it is full, so a
+ * {@link Position} (segment and record count) orders every record ever appended; segments before the one
+ * holding the last flushed position can be deleted with {@link #deleteThrough(long)}.
+ */
+@Slf4j
+public class CounterJournal implements Closeable {
+    public static final int RECORD_SIZE = 32;
+
+    private static final int MAGIC = 0x434a524e;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final Object lock = new Object();
+    private final Thread syncThread;
+
+    private long segmentSequence;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long appended;
+    private long synced;
+    private boolean closed;
+    private Throwable failure;
+
+    public CounterJournal(Path directory, int segmentRecords) throws IOException {
+        if (segmentRecords <= 0) {
+            throw new IllegalArgumentException("segmentRecords must be positive");
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> segments = segments();
+        segmentSequence = segments.isEmpty() ? 0 : segments.lastKey();
+        openSegment(segmentSequence + 1);
+
+        syncThread = new Thread(this::syncLoop, "counter-journal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    /**
+     * Reads every sealed segment still on disk, oldest first; on startup these are the previous run's segments.
+     */
+    public Map<Long, List<JournalRecord>> readSealedSegments() throws IOException {
+        Map<Long, List<JournalRecord>> records = new TreeMap<>();
+        for (Map.Entry<Long, Path> segment : segments().entrySet()) {
+            if (segment.getKey() < segmentSequence) {
+                records.put(segment.getKey(), read(segment.getValue()));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Appends a record and returns its position; pass it to {@link #awaitSynced(long, long)} before acknowledging.
+     */
+    public long append(CounterMetric metric, long targetId, int delta, long timestamp) throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Counter journal is closed");
+            }
+            checkNotFailed();
+            if (!buffer.hasRemaining()) {
+                rotate();
+            }
+
+            ByteBuffer fields = ByteBuffer.allocate(24);
+            fields.putInt(metric.getCode()).putLong(targetId).putInt(delta).putLong(timestamp);
+            CRC32 crc = new CRC32();
+            crc.update(fields.array());
+
+            buffer.putInt(MAGIC);
+            buffer.put(fields.array());
+            buffer.putInt((int) crc.getValue());
+
+            appended++;
+            lock.notifyAll();
+            return appended;
+        }
+    }
+
+    /**
+     * Returns the position just past the last appended record.
+     */
+    public Position position() {
+        synchronized (lock) {
+            return new Position(segmentSequence, buffer.position() / RECORD_SIZE);
+        }
+    }
+
+    /**
+     * Waits until the record at the position is on disk; fails if the sync thread failed or takes longer than the timeout.
+     */
+    public void awaitSynced(long position, long timeoutMillis) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (lock) {
+            while (synced < position && !closed) {
+                checkNotFailed();
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IOException("Timed out waiting for counter journal sync");
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+        }
+    }
+
+    /**
+     * Forces and seals the current segment, starts a new one and returns the sealed segment's sequence.
+     */
+    public long rotate() throws IOException {
+        synchronized (lock) {
+            buffer.force();
+            synced = appended;
+            lock.notifyAll();
+
+            long sealed = segmentSequence;
+            channel.close();
+            openSegment(sealed + 1);
+            return sealed;
+        }
+    }
+
+    public void deleteThrough(long sequence) throws IOException {
+        for (Map.Entry<Long, Path> segment : segments().entrySet()) {
+            if (segment.getKey() <= sequence && segment.getKey() != segmentSequence) {
+                Files.deleteIfExists(segment.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            buffer.force();
+            synced = appended;
+            closed = true;
+            lock.notifyAll();
+            channel.close();
+        }
+        syncThread.interrupt();
+    }
+
+    private void syncLoop() {
+        while (true) {
+            long target;
+            MappedByteBuffer pending;
+            synchronized (lock) {
+                while (synced == appended && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                target = appended;
+                pending = buffer;
+            }
+
+            // appends continue into the mapping while it is being forced; they are covered by the next round
+            try {
+                pending.force();
+            } catch (Throwable e) {
+                log.error("Counter journal sync failed, rejecting further increments", e);
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                if (pending == buffer) {
+                    synced = Math.max(synced, target);
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void checkNotFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("Counter journal sync failed", failure);
+        }
+    }
+
+    private void openSegment(long sequence) throws IOException {
+        segmentSequence = sequence;
+        channel = FileChannel.open(segmentPath(sequence),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_SIZE);
+    }
+
+    private List<JournalRecord> read(Path path) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        try (FileChannel segment = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer content = segment.map(FileChannel.MapMode.READ_ONLY, 0, segment.size());
+            byte[] fields = new byte[24];
+
+            while (content.remaining() >= RECORD_SIZE) {
+                if (content.getInt() != MAGIC) {
+                    break;
+                }
+                content.get(fields);
+                int checksum = content.getInt();
+
+                CRC32 crc = new CRC32();
+                crc.update(fields);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Discarding torn counter journal record in {} at {}", path, content.position() - RECORD_SIZE);
+                    break;
+                }
+
+                ByteBuffer record = ByteBuffer.wrap(fields);
+                records.add(new JournalRecord(CounterMetric.fromCode(record.getInt()), record.getLong(), record.getInt(), record.getLong()));
+            }
+        }
+        return records;
+    }
+
+    private TreeMap<Long, Path> segments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), path);
+                }
+            });
+        }
+        return segments;
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    @lombok.Value
+    public static class Position implements Comparable<Position> {
+        long segmentSequence;
+        int records;
+
+        @Override
+        public int compareTo(Position other) {
+            int bySegment = Long.compare(segmentSequence, other.segmentSequence);
+            return bySegment != 0 ? bySegment : Integer.compare(records, other.records);
+        }
+    }
+
+    @lombok.Value
+    public static class JournalRecord {
+        CounterMetric metric;
+        long targetId;
+        int delta;
+        long timestamp;
+    }
+}
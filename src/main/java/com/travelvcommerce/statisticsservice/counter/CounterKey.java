@@ -0,0 +1,13 @@
+package com.travelvcommerce.statisticsservice.counter;
+
+import lombok.Value;
+
+/**
+ * A buffered counter: the metric and the primary key of the row it increments
+ * ({@code videos.id} for views, {@code ad_click_counts.id} for ad clicks).
+ */
+@Value
+public class CounterKey {
+    CounterMetric metric;
+    long targetId;
+}
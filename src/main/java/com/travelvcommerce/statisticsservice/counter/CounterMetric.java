@@ -0,0 +1,25 @@
+package com.travelvcommerce.statisticsservice.counter;
+
+public enum CounterMetric {
+    VIEW(1),
+    AD_CLICK(2);
+
+    private final int code;
+
+    CounterMetric(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static CounterMetric fromCode(int code) {
+        for (CounterMetric metric : values()) {
+            if (metric.code == code) {
+                return metric;
+            }
+        }
+        throw new IllegalArgumentException("Unknown counter metric " + code);
+    }
+}
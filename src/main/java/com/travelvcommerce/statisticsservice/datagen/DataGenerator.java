@@ -0,0 +1,292 @@
+package com.travelvcommerce.statisticsservice.datagen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.dto.videoInfo.AdInfoDto;
+import com.travelvcommerce.statisticsservice.dto.videoInfo.TagInfoDto;
+import com.travelvcommerce.statisticsservice.dto.videoInfo.VideoInfoDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Bulk-loads a synthetic catalog with Zipf-distributed popularity, then exits.
+ * <p>
+ * Video popularity, videos per seller and tag usage each follow their own skew. Counters are the expected
+ * share of the configured view/like totals for the video's popularity rank, so the dataset is reproducible
+ * for a given seed. With {@code sink=kafka} only tags are written directly and every video is published
+ * as a video-create payload instead, so the consumer path builds the catalog.
+ */
+@Component
+@Profile("datagen")
+@Slf4j
+@RequiredArgsConstructor
+public class DataGenerator implements ApplicationRunner {
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${statistics.datagen.sink:jdbc}")
+    private String sink;
+    @Value("${statistics.datagen.id-prefix:gen}")
+    private String idPrefix;
+    @Value("${statistics.datagen.seed:42}")
+    private long seed;
+    @Value("${statistics.datagen.sellers:10000}")
+    private int sellers;
+    @Value("${statistics.datagen.videos:1000000}")
+    private int videos;
+    @Value("${statistics.datagen.tags:200}")
+    private int tags;
+    @Value("${statistics.datagen.users:1000000}")
+    private int users;
+    @Value("${statistics.datagen.views:100000000}")
+    private long views;
+    @Value("${statistics.datagen.likes:10000000}")
+    private long likes;
+    @Value("${statistics.datagen.video-skew:1.0}")
+    private double videoSkew;
+    @Value("${statistics.datagen.seller-skew:0.8}")
+    private double sellerSkew;
+    @Value("${statistics.datagen.tag-skew:1.0}")
+    private double tagSkew;
+    @Value("${statistics.datagen.tags-per-video:3}")
+    private int tagsPerVideo;
+    @Value("${statistics.datagen.ads-per-video:1}")
+    private int adsPerVideo;
+    @Value("${statistics.datagen.ad-click-rate:0.02}")
+    private double adClickRate;
+    @Value("${statistics.datagen.batch-size:5000}")
+    private int batchSize;
+
+    private Random random;
+    private ZipfDistribution videoPopularity;
+    private ZipfDistribution sellerSizes;
+    private ZipfDistribution tagUsage;
+    private int[] popularityRanks;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (tagsPerVideo > tags) {
+            throw new IllegalArgumentException("tags-per-video must not exceed tags");
+        }
+
+        random = new Random(seed);
+        videoPopularity = new ZipfDistribution(videos, videoSkew);
+        sellerSizes = new ZipfDistribution(sellers, sellerSkew);
+        tagUsage = new ZipfDistribution(tags, tagSkew);
+        popularityRanks = shuffledRanks(videos);
+
+        long start = System.currentTimeMillis();
+        log.info("Generating {} videos for {} sellers with {} tags into {}", videos, sellers, tags, sink);
+
+        generateTags();
+        if (sink.equals("kafka")) {
+            publishVideos();
+        } else if (sink.equals("jdbc")) {
+            insertVideos();
+        } else {
+            throw new IllegalArgumentException("sink must be jdbc or kafka");
+        }
+
+        log.info("Generated {} videos in {} ms", videos, System.currentTimeMillis() - start);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    private void generateTags() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < tags; i++) {
+            String type = i % 2 == 0 ? "region" : "theme";
+            rows.add(new Object[]{tagId(i), type, type + " " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tags (tag_id, type, content) VALUES (?, ?, ?)", rows);
+    }
+
+    private void publishVideos() throws Exception {
+        for (int video = 0; video < videos; video++) {
+            VideoInfoDto.VideoCreateDto videoCreateDto = new VideoInfoDto.VideoCreateDto();
+            videoCreateDto.setVideoId(videoId(video));
+            videoCreateDto.setVideoName(videoName(video));
+            videoCreateDto.setSellerId(sellerId(sellerSizes.sample(random)));
+
+            List<TagInfoDto> videoTags = new ArrayList<>();
+            for (int tag : sampleTags()) {
+                TagInfoDto tagInfoDto = new TagInfoDto();
+                tagInfoDto.setTagId(tagId(tag));
+                videoTags.add(tagInfoDto);
+            }
+            videoCreateDto.setVideoTags(videoTags);
+
+            List<AdInfoDto> videoAds = new ArrayList<>();
+            for (int ad = 0; ad < adsPerVideo; ad++) {
+                AdInfoDto adInfoDto = new AdInfoDto();
+                adInfoDto.setAdId(adId(video, ad));
+                videoAds.add(adInfoDto);
+            }
+            videoCreateDto.setVideoAds(videoAds);
+
+            kafkaTemplate.send("video-create", videoCreateDto.getVideoId(), objectMapper.writeValueAsString(videoCreateDto));
+            logProgress(video + 1);
+        }
+        kafkaTemplate.flush();
+    }
+
+    private void insertVideos() {
+        long viewCountId = nextId("video_view_counts");
+        long likeCountId = nextId("video_like_counts");
+
+        for (int from = 0; from < videos; from += batchSize) {
+            int to = Math.min(from + batchSize, videos);
+
+            List<Object[]> viewCounts = new ArrayList<>();
+            List<Object[]> likeCounts = new ArrayList<>();
+            List<Object[]> videoRows = new ArrayList<>();
+            List<Object[]> videoStats = new ArrayList<>();
+            List<Object[]> tagViewCounts = new ArrayList<>();
+            List<Object[]> adClickCounts = new ArrayList<>();
+            List<long[]> likeRanges = new ArrayList<>();
+
+            for (int video = from; video < to; video++) {
+                double popularity = videoPopularity.probability(popularityRanks[video]);
+                long viewCount = Math.round(views * popularity);
+                long likeCount = Math.min(users, Math.round(likes * popularity));
+                String sellerId = sellerId(sellerSizes.sample(random));
+
+                viewCounts.add(new Object[]{viewCountId + video, viewCount});
+                likeCounts.add(new Object[]{likeCountId + video, likeCount});
+                videoRows.add(new Object[]{videoId(video), sellerId, videoName(video), viewCountId + video, likeCountId + video});
+
+                for (int tag : sampleTags()) {
+                    tagViewCounts.add(new Object[]{tagId(tag), videoId(video), viewCount});
+                }
+
+                long adClicks = 0;
+                for (int ad = 0; ad < adsPerVideo; ad++) {
+                    long clickCount = Math.round(viewCount * adClickRate * random.nextDouble() * 2);
+                    adClickCounts.add(new Object[]{adId(video, ad), videoId(video), clickCount});
+                    adClicks += clickCount;
+                }
+
+                videoStats.add(new Object[]{sellerId, videoId(video), videoName(video), viewCount, likeCount, adClicks});
+                likeRanges.add(new long[]{video, likeCount});
+            }
+
+            jdbcTemplate.batchUpdate("INSERT INTO video_view_counts (id, view_count) VALUES (?, ?)", viewCounts);
+            jdbcTemplate.batchUpdate("INSERT INTO video_like_counts (id, like_count) VALUES (?, ?)", likeCounts);
+            jdbcTemplate.batchUpdate("INSERT INTO videos (video_id, seller_id, video_name, video_view_count_id, video_like_count_id) VALUES (?, ?, ?, ?, ?)", videoRows);
+            jdbcTemplate.batchUpdate("INSERT INTO tag_view_counts (tag_id, video_id, view_count) VALUES (?, ?, ?)", tagViewCounts);
+            jdbcTemplate.batchUpdate("INSERT INTO ad_click_counts (ad_id, video_id, click_count) VALUES (?, ?, ?)", adClickCounts);
+            jdbcTemplate.batchUpdate("INSERT INTO seller_video_stats (seller_id, video_id, video_name, view_count, like_count, ad_click_count) VALUES (?, ?, ?, ?, ?, ?)", videoStats);
+            insertLikes(likeRanges);
+
+            logProgress(to);
+        }
+
+        jdbcTemplate.update("INSERT INTO seller_tag_stats (seller_id, tag_id, tag_name, view_count) " +
+                "SELECT v.seller_id, t.tag_id, MAX(t.content), SUM(tvc.view_count) " +
+                "FROM tag_view_counts tvc JOIN videos v ON v.video_id = tvc.video_id JOIN tags t ON t.tag_id = tvc.tag_id " +
+                "WHERE NOT EXISTS (SELECT 1 FROM seller_tag_stats sts WHERE sts.seller_id = v.seller_id AND sts.tag_id = t.tag_id) " +
+                "GROUP BY v.seller_id, t.tag_id");
+        jdbcTemplate.update("INSERT INTO tag_stats (tag_id, tag_name, type, view_count) " +
+                "SELECT t.tag_id, MAX(t.content), MAX(t.type), SUM(tvc.view_count) " +
+                "FROM tag_view_counts tvc JOIN tags t ON t.tag_id = tvc.tag_id " +
+                "GROUP BY t.tag_id " +
+                "ON DUPLICATE KEY UPDATE view_count = VALUES(view_count)");
+        jdbcTemplate.update("INSERT INTO seller_stats (seller_id, view_count, like_count, ad_click_count) " +
+                "SELECT svs.seller_id, SUM(svs.view_count), SUM(svs.like_count), SUM(svs.ad_click_count) " +
+                "FROM seller_video_stats svs WHERE svs.seller_id LIKE ? " +
+                "GROUP BY svs.seller_id", idPrefix + "-seller-%");
+        // the generated counters have no history, so they are recorded as received on the day of the load
+        jdbcTemplate.update("INSERT INTO seller_daily_stats (seller_id, stat_date, view_count, like_count, ad_click_count) " +
+                "SELECT svs.seller_id, CURDATE(), SUM(svs.view_count), SUM(svs.like_count), SUM(svs.ad_click_count) " +
+                "FROM seller_video_stats svs WHERE svs.seller_id LIKE ? " +
+                "GROUP BY svs.seller_id", idPrefix + "-seller-%");
+    }
+
+    // likers of a video are a run of consecutive users from a random offset, so they are distinct without tracking
+    private void insertLikes(List<long[]> likeRanges) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long[] likeRange : likeRanges) {
+            int offset = random.nextInt(users);
+            for (long i = 0; i < likeRange[1]; i++) {
+                rows.add(new Object[]{videoId((int) likeRange[0]), userId((int) ((offset + i) % users))});
+                if (rows.size() == batchSize) {
+                    jdbcTemplate.batchUpdate("INSERT INTO likes (video_id, user_id) VALUES (?, ?)", rows);
+                    rows.clear();
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO likes (video_id, user_id) VALUES (?, ?)", rows);
+    }
+
+    private Set<Integer> sampleTags() {
+        Set<Integer> sampled = new LinkedHashSet<>();
+        while (sampled.size() < tagsPerVideo) {
+            sampled.add(tagUsage.sample(random));
+        }
+        return sampled;
+    }
+
+    // decouples popularity from insertion order so the hottest videos are spread across batches and sellers
+    private int[] shuffledRanks(int n) {
+        int[] ranks = new int[n];
+        for (int i = 0; i < n; i++) {
+            ranks[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int rank = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = rank;
+        }
+        return ranks;
+    }
+
+    private long nextId(String table) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+    }
+
+    private void logProgress(int generated) {
+        if (generated % (batchSize * 20) < batchSize || generated == videos) {
+            log.info("Generated {}/{} videos", generated, videos);
+        }
+    }
+
+    private String sellerId(int seller) {
+        return idPrefix + "-seller-" + seller;
+    }
+
+    private String videoId(int video) {
+        return idPrefix + "-video-" + video;
+    }
+
+    private String videoName(int video) {
+        return "Video " + video;
+    }
+
+    private String tagId(int tag) {
+        return idPrefix + "-tag-" + tag;
+    }
+
+    private String adId(int video, int ad) {
+        return idPrefix + "-ad-" + video + "-" + ad;
+    }
+
+    private String userId(int user) {
+        return idPrefix + "-user-" + user;
+    }
+}
@@ -0,0 +1,46 @@
+package com.travelvcommerce.statisticsservice.datagen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf distribution over ranks {@code 0..n-1}: rank k is drawn with probability proportional to
+ * {@code 1 / (k + 1)^exponent}. An exponent of 0 is uniform; around 1 matches typical popularity skew.
+ * Sampling is a binary search over the precomputed cumulative distribution.
+ */
+public class ZipfDistribution {
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("exponent must not be negative");
+        }
+
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index < 0 ? -index - 1 : index;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
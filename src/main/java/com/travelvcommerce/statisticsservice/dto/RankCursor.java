@@ -0,0 +1,32 @@
+package com.travelvcommerce.statisticsservice.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last item of a rank page: its metric value and the id that breaks ties.
+ * Clients only pass it back, so the encoding can change as long as old cursors fail cleanly.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RankCursor {
+    private final long value;
+    private final String id;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((value + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RankCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new RankCursor(Long.parseLong(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -1,38 +1,82 @@
 package com.travelvcommerce.statisticsservice.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 public class RankDto {
+    // the seller total is null when the seller has no totals row yet
+    private static double share(long count, Long total) {
+        return total == null || total <= 0 ? 0 : (double) count / total;
+    }
+
     @Getter
     @Builder
+    @Jacksonized
+    @AllArgsConstructor
     public static class TagViewRankDto {
         private String tagId;
         private String tagName;
         private long views;
+        private double share;
+
+        public TagViewRankDto(String tagId, String tagName, long views, Long sellerViews) {
+            this(tagId, tagName, views, share(views, sellerViews));
+        }
     }
 
     @Getter
     @Builder
+    @Jacksonized
+    @AllArgsConstructor
     public static class VideoLikeRankDto {
         private String videoId;
         private String videoName;
         private long likes;
+        private double share;
+
+        public VideoLikeRankDto(String videoId, String videoName, long likes, Long sellerLikes) {
+            this(videoId, videoName, likes, share(likes, sellerLikes));
+        }
     }
 
     @Getter
     @Builder
+    @Jacksonized
+    @AllArgsConstructor
     public static class VideoViewRankDto {
         private String videoId;
         private String videoName;
         private long views;
+        private double share;
+
+        public VideoViewRankDto(String videoId, String videoName, long views, Long sellerViews) {
+            this(videoId, videoName, views, share(views, sellerViews));
+        }
     }
 
     @Getter
     @Builder
+    @Jacksonized
+    @AllArgsConstructor
     public static class VideoAdClickRankDto {
         private String videoId;
         private String videoName;
         private long adClicks;
+        private double share;
+
+        public VideoAdClickRankDto(String videoId, String videoName, long adClicks, Long sellerAdClicks) {
+            this(videoId, videoName, adClicks, share(adClicks, sellerAdClicks));
+        }
+    }
+
+    @Getter
+    @Builder
+    @Jacksonized
+    public static class TrendingVideoRankDto {
+        private String videoId;
+        private String videoName;
+        private long estimatedViews;
     }
 }
@@ -13,6 +13,8 @@ public class RankResponseDto {
     public static class VideoViewRankResponseDto {
         private List<RankDto.VideoViewRankDto> videoViewRank;
         private String aggregatedAt;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String nextCursor;
     }
 
     @Getter
@@ -20,6 +22,8 @@ public class RankResponseDto {
     public static class TagViewRankResponseDto {
         private List<RankDto.TagViewRankDto> tagViewRank;
         private String aggregatedAt;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String nextCursor;
     }
 
     @Getter
@@ -27,6 +31,8 @@ public class RankResponseDto {
     public static class VideoLikeRankResponseDto {
         private List<RankDto.VideoLikeRankDto> videoLikeRank;
         private String aggregatedAt;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String nextCursor;
     }
 
     @Getter
@@ -34,6 +40,8 @@ public class RankResponseDto {
     public static class VideoAdClickRankResponseDto {
         private List<RankDto.VideoAdClickRankDto> videoAdClickRank;
         private String aggregatedAt;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String nextCursor;
     }
 
     @Getter
@@ -41,5 +49,25 @@ public class RankResponseDto {
     public static class TagRankResponseDto {
         private List<TagRankDto> tagRank;
         private String aggregatedAt;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String nextCursor;
+    }
+
+    @Getter
+    @Builder
+    public static class TrendingVideoRankResponseDto {
+        private List<RankDto.TrendingVideoRankDto> trendingVideoRank;
+        private long errorBound;
+        private double confidence;
+        private String aggregatedAt;
+    }
+
+    @Getter
+    @Builder
+    public static class DashboardResponseDto {
+        private VideoViewRankResponseDto videoViewRank;
+        private TagViewRankResponseDto tagViewRank;
+        private VideoLikeRankResponseDto videoLikeRank;
+        private VideoAdClickRankResponseDto videoAdClickRank;
     }
 }
@@ -0,0 +1,25 @@
+package com.travelvcommerce.statisticsservice.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class SellerSummaryDto {
+    private String sellerId;
+    private long views;
+    private long likes;
+    private long adClicks;
+    private List<DailyStatsDto> daily;
+
+    @Getter
+    @Builder
+    public static class DailyStatsDto {
+        private String date;
+        private long views;
+        private long likes;
+        private long adClicks;
+    }
+}
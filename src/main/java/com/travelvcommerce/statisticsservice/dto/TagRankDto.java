@@ -2,17 +2,21 @@ package com.travelvcommerce.statisticsservice.dto;
 
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 @Getter
 public class TagRankDto {
     private String tagId;
     private String content;
     private String type;
+    private Long views;
 
     @Builder
-    public TagRankDto(String tagId, String content, String type) {
+    @Jacksonized
+    public TagRankDto(String tagId, String content, String type, Long views) {
         this.tagId = tagId;
         this.content = content;
         this.type = type;
+        this.views = views;
     }
 }
@@ -1,6 +1,7 @@
 package com.travelvcommerce.statisticsservice.dto.count;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -8,6 +9,7 @@ import java.io.Serializable;
 
 @Builder
 @Getter
+@AllArgsConstructor
 public class VideoCountInfoDto  implements Serializable {
     private String videoId;
     private long views;
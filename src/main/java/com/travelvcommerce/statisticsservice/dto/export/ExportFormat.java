@@ -0,0 +1,23 @@
+package com.travelvcommerce.statisticsservice.dto.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    public static ExportFormat from(String format) {
+        for (ExportFormat exportFormat : values()) {
+            if (exportFormat.extension.equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+}
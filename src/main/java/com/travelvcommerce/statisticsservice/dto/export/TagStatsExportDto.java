@@ -0,0 +1,12 @@
+package com.travelvcommerce.statisticsservice.dto.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TagStatsExportDto {
+    private String tagId;
+    private String tagName;
+    private long views;
+}
@@ -0,0 +1,14 @@
+package com.travelvcommerce.statisticsservice.dto.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VideoStatsExportDto {
+    private String videoId;
+    private String videoName;
+    private long views;
+    private long likes;
+    private long adClicks;
+}
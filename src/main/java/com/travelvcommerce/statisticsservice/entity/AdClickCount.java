@@ -17,30 +17,21 @@ public class AdClickCount {
     @Column(name = "ad_id")
     private String adId;
 
-    @JoinColumn(name = "video_id", referencedColumnName = "video_id", foreignKey = @ForeignKey(name = "ad_click_count_fk_video_id"))
-    @ManyToOne
-    private Video video;
+    @Column(name = "video_id")
+    private String videoId;
 
     @Column(name = "click_count")
     @ColumnDefault("0")
     private long clickCount;
 
     @Builder
-    public AdClickCount(String adId, Video video, long clickCount) {
+    public AdClickCount(String adId, String videoId, long clickCount) {
         this.adId = adId;
-        this.video = video;
+        this.videoId = videoId;
         this.clickCount = clickCount;
     }
 
     public void increaseClickCount() {
         this.clickCount++;
     }
-
-    public String getVideoId() {
-        return this.video.getVideoId();
-    }
-
-    public String getVideoName() {
-        return this.video.getVideoName();
-    }
 }
@@ -0,0 +1,36 @@
+package com.travelvcommerce.statisticsservice.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import javax.persistence.*;
+
+/**
+ * Read-only view of the ad to video mapping in ad_click_counts, without the click count, so it can be
+ * cached; AdClickCount itself is updated in bulk outside Hibernate. Rows are written through AdClickCount,
+ * so whoever deletes one evicts it here (AdVideoRepository#evictAfterCommit).
+ */
+@Table(name = "ad_click_counts")
+@Entity
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
+@NaturalIdCache
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class AdVideo {
+    @Id
+    private long id;
+
+    @NaturalId
+    @Column(name = "ad_id")
+    private String adId;
+
+    @Column(name = "video_id")
+    private String videoId;
+}
@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import javax.persistence.*;
 
 @Entity
-@Table(name = "likes")
+@Table(name = "likes", uniqueConstraints = @UniqueConstraint(name = "likes_video_id_user_id_unique", columnNames = {"video_id", "user_id"}))
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Like {
@@ -16,16 +16,15 @@ public class Like {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
 
-    @JoinColumn(name = "video_id", referencedColumnName = "video_id", foreignKey = @ForeignKey(name = "like_fk_video_id"))
-    @ManyToOne
-    private Video video;
+    @Column(name = "video_id")
+    private String videoId;
 
     @Column(name = "user_id")
     private String userId;
 
     @Builder
-    public Like(Video video, String userId) {
-        this.video = video;
+    public Like(String videoId, String userId) {
+        this.videoId = videoId;
         this.userId = userId;
     }
 }
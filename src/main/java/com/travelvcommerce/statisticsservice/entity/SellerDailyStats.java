@@ -0,0 +1,34 @@
+package com.travelvcommerce.statisticsservice.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+@Table(name = "seller_daily_stats",
+        uniqueConstraints = @UniqueConstraint(name = "seller_daily_stats_seller_id_stat_date_unique", columnNames = {"seller_id", "stat_date"}))
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SellerDailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private String sellerId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+
+    @Column(name = "like_count", nullable = false)
+    private long likeCount;
+
+    @Column(name = "ad_click_count", nullable = false)
+    private long adClickCount;
+}
@@ -0,0 +1,30 @@
+package com.travelvcommerce.statisticsservice.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Table(name = "seller_stats",
+        uniqueConstraints = @UniqueConstraint(name = "seller_stats_seller_id_unique", columnNames = {"seller_id"}))
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SellerStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private String sellerId;
+
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+
+    @Column(name = "like_count", nullable = false)
+    private long likeCount;
+
+    @Column(name = "ad_click_count", nullable = false)
+    private long adClickCount;
+}
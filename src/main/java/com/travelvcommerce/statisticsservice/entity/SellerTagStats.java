@@ -0,0 +1,39 @@
+package com.travelvcommerce.statisticsservice.entity;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Table(name = "seller_tag_stats",
+        uniqueConstraints = @UniqueConstraint(name = "seller_tag_stats_seller_id_tag_id_unique", columnNames = {"seller_id", "tag_id"}),
+        indexes = @Index(name = "seller_tag_stats_view_count_idx", columnList = "seller_id, view_count DESC, tag_id DESC"))
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SellerTagStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private String sellerId;
+
+    @Column(name = "tag_id", nullable = false)
+    private String tagId;
+
+    @Column(name = "tag_name", nullable = false)
+    private String tagName;
+
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+
+    @Builder
+    public SellerTagStats(String sellerId, String tagId, String tagName) {
+        this.sellerId = sellerId;
+        this.tagId = tagId;
+        this.tagName = tagName;
+    }
+}
@@ -0,0 +1,49 @@
+package com.travelvcommerce.statisticsservice.entity;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Table(name = "seller_video_stats",
+        uniqueConstraints = @UniqueConstraint(name = "seller_video_stats_video_id_unique", columnNames = {"video_id"}),
+        indexes = {
+                @Index(name = "seller_video_stats_view_count_idx", columnList = "seller_id, view_count DESC, video_id DESC"),
+                @Index(name = "seller_video_stats_like_count_idx", columnList = "seller_id, like_count DESC, video_id DESC"),
+                @Index(name = "seller_video_stats_ad_click_count_idx", columnList = "seller_id, ad_click_count DESC, video_id DESC")
+        })
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SellerVideoStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private String sellerId;
+
+    @Column(name = "video_id", nullable = false)
+    private String videoId;
+
+    @Column(name = "video_name", nullable = false)
+    private String videoName;
+
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+
+    @Column(name = "like_count", nullable = false)
+    private long likeCount;
+
+    @Column(name = "ad_click_count", nullable = false)
+    private long adClickCount;
+
+    @Builder
+    public SellerVideoStats(String sellerId, String videoId, String videoName) {
+        this.sellerId = sellerId;
+        this.videoId = videoId;
+        this.videoName = videoName;
+    }
+}
@@ -0,0 +1,43 @@
+package com.travelvcommerce.statisticsservice.entity;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Table(name = "statistics_outbox",
+        indexes = @Index(name = "statistics_outbox_claim_token_idx", columnList = "claim_token"))
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StatisticsOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(name = "payload", nullable = false, length = 2000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Builder
+    public StatisticsOutbox(String topic, String messageKey, String payload) {
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+}
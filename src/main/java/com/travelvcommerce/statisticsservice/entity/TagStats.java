@@ -0,0 +1,31 @@
+package com.travelvcommerce.statisticsservice.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Table(name = "tag_stats",
+        uniqueConstraints = @UniqueConstraint(name = "tag_stats_tag_id_unique", columnNames = {"tag_id"}),
+        indexes = @Index(name = "tag_stats_view_count_idx", columnList = "type, view_count DESC, tag_id DESC"))
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class TagStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tag_id", nullable = false)
+    private String tagId;
+
+    @Column(name = "tag_name", nullable = false)
+    private String tagName;
+
+    @Column(length = 20, nullable = false)
+    private String type;
+
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+}
@@ -16,21 +16,21 @@ public class TagViewCount {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tag_id", referencedColumnName = "tag_id", foreignKey = @ForeignKey(name = "tag_view_count_fk_tag_id"))
     private Tag tag;
 
-    @ManyToOne
-    @JoinColumn(name = "video_id", referencedColumnName = "video_id", foreignKey = @ForeignKey(name = "tag_view_count_fk_video_id"))
-    private Video video;
+    // video_id is not the primary key of videos, so a mapped Video would cost a select of its own on every load
+    @Column(name = "video_id")
+    private String videoId;
 
     @Column(name = "view_count")
     private long viewCount;
 
     @Builder
-    public TagViewCount(Tag tag, Video video, long viewCount) {
+    public TagViewCount(Tag tag, String videoId, long viewCount) {
         this.tag = tag;
-        this.video = video;
+        this.videoId = videoId;
         this.viewCount = viewCount;
     }
 
@@ -4,13 +4,18 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.*;
 import java.io.Serializable;
-import java.util.List;
 
 @Table(name = "videos", uniqueConstraints = @UniqueConstraint(name = "video_id_unique", columnNames = {"video_id"}))
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Video implements Serializable {
@@ -18,6 +23,7 @@ public class Video implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(name = "video_id", nullable = false)
     private String videoId;
 
@@ -27,23 +33,16 @@ public class Video implements Serializable {
     @Column(name = "video_name", nullable = false)
     private String videoName;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    // tag view counts, likes and ad click counts are read and deleted through their repositories;
+    // a mapped collection would be walked row by row whenever a video is removed
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "video_view_count_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "video_fk_video_view_count_id"))
     private VideoViewCount videoViewCount;
 
-    @OneToMany(mappedBy = "video", cascade = CascadeType.ALL)
-    private List<TagViewCount> tagViewCounts;
-
-    @OneToMany(mappedBy = "video", cascade = CascadeType.ALL)
-    private List<Like> likes;
-
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "video_like_count_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "video_fk_video_like_count_id"))
     private VideoLikeCount videoLikeCount;
 
-    @OneToMany(mappedBy = "video", cascade = CascadeType.ALL)
-    private List<AdClickCount> adClickCounts;
-
     @Builder
     public Video(String videoId, String sellerId, String videoName) {
         this.videoId = videoId;
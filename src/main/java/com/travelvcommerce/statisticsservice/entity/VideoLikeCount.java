@@ -16,15 +16,11 @@ public class VideoLikeCount {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
 
-    @OneToOne(mappedBy = "videoLikeCount")
-    private Video video;
-
     @Column(name = "like_count")
     private long likeCount;
 
     @Builder
-    public VideoLikeCount(Video video, long likeCount) {
-        this.video = video;
+    public VideoLikeCount(long likeCount) {
         this.likeCount = likeCount;
     }
 
@@ -35,12 +31,4 @@ public class VideoLikeCount {
     public void decreaseLikeCount() {
         this.likeCount--;
     }
-
-    public String getVideoId() {
-        return this.video.getVideoId();
-    }
-
-    public String getVideoName() {
-        return this.video.getVideoName();
-    }
 }
@@ -17,27 +17,15 @@ public class VideoViewCount {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
 
-    @OneToOne(mappedBy = "videoViewCount")
-    private Video video;
-
     @Column(name = "view_count")
     private long viewCount;
 
     @Builder
-    public VideoViewCount(Video video, long viewCount) {
-        this.video = video;
+    public VideoViewCount(long viewCount) {
         this.viewCount = viewCount;
     }
 
     public void increaseViewCount() {
         this.viewCount++;
     }
-
-    public String getVideoId() {
-        return this.video.getVideoId();
-    }
-
-    public String getVideoName() {
-        return this.video.getVideoName();
-    }
 }
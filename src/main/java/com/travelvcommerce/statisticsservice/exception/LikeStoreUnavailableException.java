@@ -0,0 +1,7 @@
+package com.travelvcommerce.statisticsservice.exception;
+
+public class LikeStoreUnavailableException extends RuntimeException {
+    public LikeStoreUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
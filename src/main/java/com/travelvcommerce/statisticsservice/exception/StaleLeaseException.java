@@ -0,0 +1,11 @@
+package com.travelvcommerce.statisticsservice.exception;
+
+public class StaleLeaseException extends RuntimeException {
+    public StaleLeaseException(String message) {
+        super(message);
+    }
+
+    StaleLeaseException() {
+        super();
+    }
+}
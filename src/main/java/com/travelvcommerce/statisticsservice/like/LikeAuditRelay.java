@@ -0,0 +1,89 @@
+package com.travelvcommerce.statisticsservice.like;
+
+import com.travelvcommerce.statisticsservice.repository.VideoRepository;
+import com.travelvcommerce.statisticsservice.schedule.ClusterJobScheduler;
+import com.travelvcommerce.statisticsservice.schedule.JobFence;
+import com.travelvcommerce.statisticsservice.schedule.JobLease;
+import com.travelvcommerce.statisticsservice.service.LikeAuditService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisZSetCommands.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Applies the like audit streams to the likes table and the like counters, one shard per partition, so a
+ * partition's changes reach MariaDB in the order the membership store accepted them. A batch is applied in one
+ * fenced transaction and removed from the stream only after it commits; a failed batch stays at the head of
+ * the stream and is retried on the next tick. Replaying a batch is harmless because every write is idempotent.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LikeAuditRelay {
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LikeMembershipStore likeMembershipStore;
+    private final LikeAuditService likeAuditService;
+    private final VideoRepository videoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterJobScheduler clusterJobScheduler;
+    private final JobFence jobFence;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${statistics.like-audit.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${statistics.like-audit.relay-interval-ms:100}")
+    public void relay() {
+        clusterJobScheduler.runSharded("likeAuditRelay", likeMembershipStore.getPartitions(), lease -> {
+            int applied;
+            do {
+                applied = relayBatch(lease);
+            } while (applied == batchSize && lease.isHeld());
+        });
+    }
+
+    private int relayBatch(JobLease lease) {
+        String key = likeMembershipStore.auditStreamKey(lease.getShard());
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                .range(key, Range.unbounded(), Limit.limit().count(batchSize));
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jobFence.check(lease);
+            records.forEach(this::apply);
+        });
+
+        redisTemplate.opsForStream().delete(key, records.stream().map(MapRecord::getId).toArray(RecordId[]::new));
+        meterRegistry.counter("statistics.like-audit.applied").increment(records.size());
+        return records.size();
+    }
+
+    private void apply(MapRecord<String, Object, Object> record) {
+        String videoId = (String) record.getValue().get("videoId");
+        String userId = (String) record.getValue().get("userId");
+
+        // a video deleted since the like was accepted has no counters left to move
+        if (videoRepository.findIdByVideoId(videoId).isEmpty()) {
+            log.info("Skipping like audit of deleted video videoId={} userId={}", videoId, userId);
+            return;
+        }
+
+        if ("like".equals(record.getValue().get("action"))) {
+            likeAuditService.applyLike(videoId, userId);
+        } else {
+            likeAuditService.applyUnlike(videoId, userId);
+        }
+    }
+}
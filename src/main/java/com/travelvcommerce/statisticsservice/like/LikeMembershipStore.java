@@ -0,0 +1,162 @@
+package com.travelvcommerce.statisticsservice.like;
+
+import com.travelvcommerce.statisticsservice.repository.LikeRepository;
+import com.travelvcommerce.statisticsservice.repository.VideoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Keeps who liked a video in Redis bitmaps of user indexes per video, with the like count in a key of its own.
+ * Each change is one script run on the Redis server, so it costs the same however many likes the video has. A video's bitmap is split into fixed-size chunks so a few
+ * likes from users with high indexes do not allocate one long bitmap. The bitmap is seeded from the likes
+ * table on first access; after that the table is only written as an audit log and never read on the like path.
+ * <p>
+ * Videos are spread over a fixed number of partitions. The script that changes a bitmap also appends the
+ * change to its partition's audit stream, which {@link LikeAuditRelay} applies to MariaDB in stream order.
+ * Changing the partition count moves every video to new keys, so their bitmaps are seeded again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeMembershipStore {
+    private static final int CHUNK_BITS = 1 << 15;
+    private static final long UNCHANGED = -1L;
+    private static final long NOT_SEEDED = -2L;
+
+    // KEYS: count, chunk, chunk set, audit stream; ARGV: bit in chunk, chunk number, 1 to like or 0 to unlike,
+    // videoId, userId
+    private static final RedisScript<Long> UPDATE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end " +
+                    "local bit = tonumber(ARGV[3]) " +
+                    "if redis.call('GETBIT', KEYS[2], ARGV[1]) == bit then return -1 end " +
+                    "redis.call('SETBIT', KEYS[2], ARGV[1], bit) " +
+                    "redis.call('XADD', KEYS[4], '*', 'videoId', ARGV[4], 'userId', ARGV[5], 'action', bit == 1 and 'like' or 'unlike') " +
+                    "if bit == 0 then return redis.call('DECR', KEYS[1]) end " +
+                    "redis.call('SADD', KEYS[3], ARGV[2]) " +
+                    "return redis.call('INCR', KEYS[1])", Long.class);
+    // KEYS: count, chunk set, then the chunk keys; ARGV: the chunk numbers in KEYS order, then a position in the
+    // chunk keys and a bit in that chunk per like; a video seeded meanwhile is left alone
+    private static final RedisScript<Long> SEED = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+                    "local chunks = #KEYS - 2 " +
+                    "for i = 1, chunks do redis.call('SADD', KEYS[2], ARGV[i]) end " +
+                    "for i = chunks + 1, #ARGV, 2 do redis.call('SETBIT', KEYS[2 + tonumber(ARGV[i])], ARGV[i + 1], 1) end " +
+                    "redis.call('SET', KEYS[1], (#ARGV - chunks) / 2) " +
+                    "return 1", Long.class);
+    // KEYS: count, chunk set, then the chunk keys read from the set; chunks are never removed from the set, so
+    // a size mismatch means a like added a chunk after the read and the caller has to read it again
+    private static final RedisScript<Long> EVICT = new DefaultRedisScript<>(
+            "if redis.call('SCARD', KEYS[2]) > #KEYS - 2 then return -1 end " +
+                    "return redis.call('DEL', unpack(KEYS))", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UserIdDictionary userIdDictionary;
+    private final VideoRepository videoRepository;
+    private final LikeRepository likeRepository;
+
+    @Value("${statistics.like-audit.partitions:8}")
+    private int partitions;
+
+    /**
+     * @return the like count after adding the user, or -1 if the user had already liked the video
+     */
+    public long like(String videoId, String userId) {
+        return update(videoId, userId, true);
+    }
+
+    /**
+     * @return the like count after removing the user, or -1 if the user had not liked the video
+     */
+    public long unlike(String videoId, String userId) {
+        return update(videoId, userId, false);
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public String auditStreamKey(int partition) {
+        return "likeAudit:" + partitionTag(partition);
+    }
+
+    public void evict(String videoId) {
+        Long evicted;
+        do {
+            List<String> keys = new ArrayList<>(List.of(countKey(videoId), chunkSetKey(videoId)));
+            redisTemplate.opsForSet().members(chunkSetKey(videoId)).forEach(chunk -> keys.add(chunkKey(videoId, Integer.parseInt(chunk))));
+            evicted = redisTemplate.execute(EVICT, keys);
+        } while (evicted != null && evicted < 0);
+    }
+
+    private long update(String videoId, String userId, boolean add) {
+        int userIndex = userIdDictionary.encode(userId);
+        int chunk = userIndex / CHUNK_BITS;
+        List<String> keys = List.of(countKey(videoId), chunkKey(videoId, chunk), chunkSetKey(videoId), auditStreamKey(partition(videoId)));
+        List<Object> args = List.of(String.valueOf(userIndex % CHUNK_BITS), String.valueOf(chunk), add ? "1" : "0", videoId, userId);
+
+        Long likeCount = redisTemplate.execute(UPDATE, keys, args.toArray());
+        if (likeCount == NOT_SEEDED) {
+            seed(videoId);
+            likeCount = redisTemplate.execute(UPDATE, keys, args.toArray());
+        }
+
+        return likeCount < 0 ? UNCHANGED : likeCount;
+    }
+
+    private void seed(String videoId) {
+        videoRepository.findIdByVideoId(videoId).orElseThrow(() -> new NoSuchElementException("Video not found"));
+
+        Map<Integer, Integer> chunkPositions = new LinkedHashMap<>();
+        List<String> bits = new ArrayList<>();
+        for (String userId : likeRepository.findUserIdsByVideoId(videoId)) {
+            int userIndex = userIdDictionary.encode(userId);
+            bits.add(String.valueOf(chunkPositions.computeIfAbsent(userIndex / CHUNK_BITS, chunk -> chunkPositions.size() + 1)));
+            bits.add(String.valueOf(userIndex % CHUNK_BITS));
+        }
+
+        List<String> keys = new ArrayList<>(List.of(countKey(videoId), chunkSetKey(videoId)));
+        List<Object> args = new ArrayList<>();
+        chunkPositions.keySet().forEach(chunk -> {
+            keys.add(chunkKey(videoId, chunk));
+            args.add(String.valueOf(chunk));
+        });
+        args.addAll(bits);
+
+        Long seeded = redisTemplate.execute(SEED, keys, args.toArray());
+        if (seeded != null && seeded == 1) {
+            log.info("Seeded like bitmap videoId={} likes={}", videoId, bits.size() / 2);
+        }
+    }
+
+    private int partition(String videoId) {
+        return Math.floorMod(videoId.hashCode(), partitions);
+    }
+
+    // the hash tag keeps a partition's bitmaps and audit stream in one slot, so a script can touch them together
+    private String partitionTag(int partition) {
+        return "{likes:" + partition + "}";
+    }
+
+    private String countKey(String videoId) {
+        return "likeCount:" + partitionTag(partition(videoId)) + ":" + videoId;
+    }
+
+    private String chunkSetKey(String videoId) {
+        return "likeBitmapChunks:" + partitionTag(partition(videoId)) + ":" + videoId;
+    }
+
+    private String chunkKey(String videoId, int chunk) {
+        return "likeBitmap:" + partitionTag(partition(videoId)) + ":" + videoId + ":" + chunk;
+    }
+}
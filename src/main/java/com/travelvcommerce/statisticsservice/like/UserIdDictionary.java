@@ -0,0 +1,59 @@
+package com.travelvcommerce.statisticsservice.like;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns every userId a dense int so like membership can be kept in bitmaps.
+ * Assignments live in Redis and never change, so they are also cached locally.
+ */
+@Component
+public class UserIdDictionary {
+    private static final String USER_INDEX_KEY = "likeUserIndex";
+    // assigns the next index only if the user has none, so a lookup is a single round trip; indexes are
+    // handed out densely and never removed, so the hash's size is the next one and the script needs one key
+    private static final RedisScript<Long> LOOKUP = new DefaultRedisScript<>(
+            "local index = redis.call('HGET', KEYS[1], ARGV[1]) " +
+                    "if index then return tonumber(index) end " +
+                    "index = redis.call('HLEN', KEYS[1]) " +
+                    "redis.call('HSET', KEYS[1], ARGV[1], index) " +
+                    "return index", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Map<String, Integer> indexes;
+
+    public UserIdDictionary(RedisTemplate<String, String> redisTemplate,
+                            @Value("${statistics.like-membership.dictionary-cache-size:100000}") int cacheSize) {
+        this.redisTemplate = redisTemplate;
+        this.indexes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public int encode(String userId) {
+        Integer index = indexes.get(userId);
+
+        if (index == null) {
+            index = lookup(userId);
+            indexes.put(userId, index);
+        }
+
+        return index;
+    }
+
+    private int lookup(String userId) {
+        Long index = redisTemplate.execute(LOOKUP, List.of(USER_INDEX_KEY), userId);
+        return index.intValue();
+    }
+}
@@ -0,0 +1,121 @@
+package com.travelvcommerce.statisticsservice.outbox;
+
+import com.travelvcommerce.statisticsservice.entity.StatisticsOutbox;
+import com.travelvcommerce.statisticsservice.repository.StatisticsOutboxRepository;
+import com.travelvcommerce.statisticsservice.schedule.ClusterJobScheduler;
+import com.travelvcommerce.statisticsservice.schedule.JobFence;
+import com.travelvcommerce.statisticsservice.schedule.JobLease;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox rows to Kafka in batches, keyed by videoId so a video's updates stay in one partition.
+ * A batch is claimed, sent without waiting per record, and only the acknowledged rows are deleted, so delivery
+ * is at-least-once. Once a row fails, no later row with the same key counts as sent: they are released together
+ * with it and claimed again in id order, so a key's updates are never delivered last out of order.
+ * Only the instance holding the relay lease drains. A new holder claims the oldest rows whoever claimed them,
+ * a holder stops sending once its lease is lost, and its delete and release are fenced, so rows a previous
+ * holder left behind go out before anything newer for their key.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StatisticsOutboxRelay {
+    private final StatisticsOutboxRepository statisticsOutboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterJobScheduler clusterJobScheduler;
+    private final JobFence jobFence;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${statistics.outbox.batch-size:500}")
+    private int batchSize;
+    @Value("${statistics.outbox.send-timeout-seconds:10}")
+    private long sendTimeoutSeconds;
+
+    @Scheduled(fixedDelayString = "${statistics.outbox.relay-interval-ms:100}")
+    public void relay() {
+        clusterJobScheduler.runExclusive("statisticsOutboxRelay", lease -> {
+            int relayed;
+            // keep draining while batches come back full
+            do {
+                relayed = relayBatch(lease);
+            } while (relayed == batchSize && lease.isHeld());
+        });
+    }
+
+    private int relayBatch(JobLease lease) {
+        String claimToken = UUID.randomUUID().toString();
+        int claimed = transactionTemplate.execute(status -> {
+            jobFence.check(lease);
+            return statisticsOutboxRepository.claim(claimToken, batchSize);
+        });
+        if (claimed == 0) {
+            return 0;
+        }
+
+        List<StatisticsOutbox> messages = statisticsOutboxRepository.findByClaimTokenOrderById(claimToken);
+        List<ListenableFuture<SendResult<String, String>>> futures = new ArrayList<>();
+        for (StatisticsOutbox message : messages) {
+            if (!lease.isHeld()) {
+                break;
+            }
+            futures.add(kafkaTemplate.send(message.getTopic(), message.getMessageKey(), message.getPayload()));
+        }
+
+        List<Long> sent = new ArrayList<>();
+        List<Long> unsent = new ArrayList<>();
+        Set<String> failedKeys = new HashSet<>();
+        boolean interrupted = false;
+        for (int i = 0; i < messages.size(); i++) {
+            StatisticsOutbox message = messages.get(i);
+            if (interrupted || i >= futures.size() || !lease.isHeld() || failedKeys.contains(message.getMessageKey())) {
+                unsent.add(message.getId());
+                continue;
+            }
+
+            try {
+                futures.get(i).get(sendTimeoutSeconds, TimeUnit.SECONDS);
+                sent.add(message.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+                unsent.add(message.getId());
+            } catch (Exception e) {
+                log.error("Error publishing statistics outbox message {}", message.getId(), e);
+                failedKeys.add(message.getMessageKey());
+                unsent.add(message.getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jobFence.check(lease);
+            if (!sent.isEmpty()) {
+                statisticsOutboxRepository.deleteByIds(sent);
+            }
+            if (!unsent.isEmpty()) {
+                statisticsOutboxRepository.releaseByIds(unsent);
+            }
+        });
+
+        meterRegistry.counter("statistics.outbox.relayed", "result", "sent").increment(sent.size());
+        meterRegistry.counter("statistics.outbox.relayed", "result", "failed").increment(unsent.size());
+        // a failed batch ends the drain, so an unreachable broker is retried on the next tick rather than in a loop
+        return unsent.isEmpty() ? claimed : sent.size();
+    }
+}
@@ -0,0 +1,14 @@
+package com.travelvcommerce.statisticsservice.redis;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * Every operation, pipeline and script of a template runs through this execute method once.
+ */
+public class CountingRedisTemplate<K, V> extends RedisTemplate<K, V> {
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        return RedisRoundTrips.count(() -> super.execute(action, exposeConnection, pipeline));
+    }
+}
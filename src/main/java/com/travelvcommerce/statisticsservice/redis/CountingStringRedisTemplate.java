@@ -0,0 +1,16 @@
+package com.travelvcommerce.statisticsservice.redis;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+public class CountingStringRedisTemplate extends StringRedisTemplate {
+    public CountingStringRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
+        super(redisConnectionFactory);
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        return RedisRoundTrips.count(() -> super.execute(action, exposeConnection, pipeline));
+    }
+}
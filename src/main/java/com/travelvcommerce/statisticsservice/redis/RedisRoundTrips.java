@@ -0,0 +1,36 @@
+package com.travelvcommerce.statisticsservice.redis;
+
+import java.util.function.Supplier;
+
+/**
+ * Counts Redis round trips made by the current thread. A pipeline or script is one round trip, so
+ * template calls nested inside another one (e.g. operations of a pipelined session) are not counted again.
+ */
+public final class RedisRoundTrips {
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[2]);
+    private static final int ROUND_TRIPS = 0;
+    private static final int DEPTH = 1;
+
+    private RedisRoundTrips() {
+    }
+
+    public static int get() {
+        return COUNTS.get()[ROUND_TRIPS];
+    }
+
+    public static void reset() {
+        COUNTS.get()[ROUND_TRIPS] = 0;
+    }
+
+    static <T> T count(Supplier<T> call) {
+        int[] counts = COUNTS.get();
+        if (counts[DEPTH]++ == 0) {
+            counts[ROUND_TRIPS]++;
+        }
+        try {
+            return call.get();
+        } finally {
+            counts[DEPTH]--;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.entity.AdVideo;
+import org.springframework.data.repository.Repository;
+
+@org.springframework.stereotype.Repository
+public interface AdVideoRepository extends Repository<AdVideo, Long>, AdVideoRepositoryCustom {
+}
@@ -0,0 +1,12 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.entity.AdVideo;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface AdVideoRepositoryCustom {
+    Optional<AdVideo> findByAdId(String adId);
+
+    void evictAfterCommit(Collection<Long> adClickCountIds);
+}
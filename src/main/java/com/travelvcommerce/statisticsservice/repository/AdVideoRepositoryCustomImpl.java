@@ -0,0 +1,55 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.entity.AdVideo;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class AdVideoRepositoryCustomImpl implements AdVideoRepositoryCustom {
+    private final NaturalIdLookup naturalIdLookup;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // on the primary, so a lookup after an eviction can't cache a mapping the replica still holds
+    @Override
+    @Transactional
+    public Optional<AdVideo> findByAdId(String adId) {
+        return naturalIdLookup.load(AdVideo.class, adId);
+    }
+
+    // evicting before commit would let a concurrent lookup cache the row again until then
+    @Override
+    public void evictAfterCommit(Collection<Long> adClickCountIds) {
+        if (adClickCountIds.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = List.copyOf(adClickCountIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(ids);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(ids);
+            }
+        });
+    }
+
+    // natural ids can't be evicted per key; ads are removed rarely enough to drop them all
+    private void evict(List<Long> ids) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        ids.forEach(id -> cache.evictEntityData(AdVideo.class, id));
+        cache.evictNaturalIdData(AdVideo.class);
+    }
+}
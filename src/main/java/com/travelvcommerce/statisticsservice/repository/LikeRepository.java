@@ -2,16 +2,41 @@ package com.travelvcommerce.statisticsservice.repository;
 
 import com.travelvcommerce.statisticsservice.entity.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
 
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Long> {
-    @Query("SELECT l " +
+    // seeds the membership bitmap, so it reads the primary rather than a lagging replica
+    @Transactional
+    @Query("SELECT l.userId " +
             "FROM Like l " +
-            "WHERE l.video.videoId = :videoId " +
-            "AND l.userId = :userId")
-    Optional<Like> findByVideoIdAndUserId(String videoId, String userId);
+            "WHERE l.videoId = :videoId")
+    List<String> findUserIdsByVideoId(String videoId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "likes"))
+    @Query(value = "INSERT IGNORE INTO likes (video_id, user_id) " +
+            "VALUES (:videoId, :userId)", nativeQuery = true)
+    int insertIgnore(String videoId, String userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "likes"))
+    @Query(value = "DELETE FROM likes " +
+            "WHERE video_id = :videoId AND user_id = :userId", nativeQuery = true)
+    int deleteByVideoIdAndUserId(String videoId, String userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "likes"))
+    @Query(value = "DELETE FROM likes " +
+            "WHERE video_id = :videoId", nativeQuery = true)
+    int deleteByVideoId(String videoId);
 }
@@ -0,0 +1,29 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.util.Optional;
+
+/**
+ * Loads entities by their natural id through Hibernate, so the natural id and entity caches are used;
+ * a derived findBy query always goes to the database.
+ */
+@Component
+@RequiredArgsConstructor
+class NaturalIdLookup {
+    private final EntityManager entityManager;
+
+    <T> Optional<T> load(Class<T> entityClass, String naturalId) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(entityClass).loadOptional(naturalId);
+    }
+
+    // resolves only the primary key; the returned reference is not initialized
+    <T> Optional<Object> loadId(Class<T> entityClass, String naturalId) {
+        T reference = entityManager.unwrap(Session.class).bySimpleNaturalId(entityClass).getReference(naturalId);
+        return Optional.ofNullable(reference)
+                .map(entity -> entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity));
+    }
+}
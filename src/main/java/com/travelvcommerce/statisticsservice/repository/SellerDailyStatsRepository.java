@@ -0,0 +1,30 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.entity.SellerDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
+
+@Repository
+public interface SellerDailyStatsRepository extends JpaRepository<SellerDailyStats, Long> {
+    @Query("SELECT sds " +
+            "FROM SellerDailyStats sds " +
+            "WHERE sds.sellerId = :sellerId AND sds.statDate >= :from " +
+            "ORDER BY sds.statDate DESC")
+    List<SellerDailyStats> findDailyStats(String sellerId, LocalDate from);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "seller_daily_stats"))
+    @Query(value = "INSERT INTO seller_daily_stats (seller_id, stat_date, like_count) " +
+            "SELECT v.seller_id, :statDate, :delta FROM videos v WHERE v.video_id = :videoId " +
+            "ON DUPLICATE KEY UPDATE like_count = like_count + VALUES(like_count)", nativeQuery = true)
+    int addLikeCount(String videoId, LocalDate statDate, long delta);
+}
@@ -0,0 +1,41 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.entity.SellerStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.Optional;
+
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
+
+@Repository
+public interface SellerStatsRepository extends JpaRepository<SellerStats, Long> {
+    Optional<SellerStats> findBySellerId(String sellerId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "seller_stats"))
+    @Query(value = "INSERT IGNORE INTO seller_stats (seller_id) " +
+            "VALUES (:sellerId)", nativeQuery = true)
+    int insertIgnore(String sellerId);
+
+    @Modifying
+    @Query("UPDATE SellerStats ss " +
+            "SET ss.adClickCount = ss.adClickCount + :delta " +
+            "WHERE ss.sellerId = :sellerId")
+    int addAdClickCount(String sellerId, long delta);
+
+    // run before the video's seller_video_stats row is deleted, which holds the counts to take off
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "seller_stats"))
+    @Query(value = "UPDATE seller_stats ss " +
+            "JOIN seller_video_stats svs ON svs.seller_id = ss.seller_id " +
+            "SET ss.view_count = ss.view_count - svs.view_count, " +
+            "ss.like_count = ss.like_count - svs.like_count, " +
+            "ss.ad_click_count = ss.ad_click_count - svs.ad_click_count " +
+            "WHERE svs.video_id = :videoId", nativeQuery = true)
+    int subtractVideoStats(String videoId);
+}
@@ -0,0 +1,56 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.dto.RankDto;
+import com.travelvcommerce.statisticsservice.dto.export.TagStatsExportDto;
+import com.travelvcommerce.statisticsservice.entity.SellerTagStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
+@Repository
+public interface SellerTagStatsRepository extends JpaRepository<SellerTagStats, Long> {
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.RankDto$TagViewRankDto(sts.tagId, sts.tagName, sts.viewCount, ss.viewCount) " +
+            "FROM SellerTagStats sts LEFT JOIN SellerStats ss ON ss.sellerId = sts.sellerId " +
+            "WHERE sts.sellerId = :sellerId " +
+            "ORDER BY sts.viewCount DESC, sts.tagId DESC")
+    List<RankDto.TagViewRankDto> findViewRank(String sellerId, Pageable pageable);
+
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.RankDto$TagViewRankDto(sts.tagId, sts.tagName, sts.viewCount, ss.viewCount) " +
+            "FROM SellerTagStats sts LEFT JOIN SellerStats ss ON ss.sellerId = sts.sellerId " +
+            "WHERE sts.sellerId = :sellerId " +
+            "AND (sts.viewCount < :viewCount OR (sts.viewCount = :viewCount AND sts.tagId < :tagId)) " +
+            "ORDER BY sts.viewCount DESC, sts.tagId DESC")
+    List<RankDto.TagViewRankDto> findViewRankAfter(String sellerId, long viewCount, String tagId, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = FETCH_SIZE, value = "1000"), @QueryHint(name = READ_ONLY, value = "true")})
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.export.TagStatsExportDto(" +
+            "sts.tagId, sts.tagName, sts.viewCount) " +
+            "FROM SellerTagStats sts " +
+            "WHERE sts.sellerId = :sellerId " +
+            "ORDER BY sts.viewCount DESC")
+    Stream<TagStatsExportDto> streamBySellerId(String sellerId);
+
+    boolean existsBySellerIdAndTagId(String sellerId, String tagId);
+
+    @Modifying
+    @Query("UPDATE SellerTagStats sts " +
+            "SET sts.viewCount = sts.viewCount + :delta " +
+            "WHERE sts.sellerId = :sellerId AND sts.tagId IN :tagIds")
+    int addViewCount(String sellerId, Collection<String> tagIds, long delta);
+
+    @Modifying
+    @Query("DELETE FROM SellerTagStats sts " +
+            "WHERE sts.sellerId = :sellerId AND sts.tagId = :tagId")
+    int deleteBySellerIdAndTagId(String sellerId, String tagId);
+}
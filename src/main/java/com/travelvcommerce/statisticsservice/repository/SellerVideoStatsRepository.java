@@ -0,0 +1,86 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.dto.RankDto;
+import com.travelvcommerce.statisticsservice.dto.export.VideoStatsExportDto;
+import com.travelvcommerce.statisticsservice.entity.SellerVideoStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
+@Repository
+public interface SellerVideoStatsRepository extends JpaRepository<SellerVideoStats, Long> {
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.RankDto$VideoViewRankDto(svs.videoId, svs.videoName, svs.viewCount, ss.viewCount) " +
+            "FROM SellerVideoStats svs LEFT JOIN SellerStats ss ON ss.sellerId = svs.sellerId " +
+            "WHERE svs.sellerId = :sellerId " +
+            "ORDER BY svs.viewCount DESC, svs.videoId DESC")
+    List<RankDto.VideoViewRankDto> findViewRank(String sellerId, Pageable pageable);
+
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.RankDto$VideoViewRankDto(svs.videoId, svs.videoName, svs.viewCount, ss.viewCount) " +
+            "FROM SellerVideoStats svs LEFT JOIN SellerStats ss ON ss.sellerId = svs.sellerId " +
+            "WHERE svs.sellerId = :sellerId " +
+            "AND (svs.viewCount < :viewCount OR (svs.viewCount = :viewCount AND svs.videoId < :videoId)) " +
+            "ORDER BY svs.viewCount DESC, svs.videoId DESC")
+    List<RankDto.VideoViewRankDto> findViewRankAfter(String sellerId, long viewCount, String videoId, Pageable pageable);
+
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.RankDto$VideoLikeRankDto(svs.videoId, svs.videoName, svs.likeCount, ss.likeCount) " +
+            "FROM SellerVideoStats svs LEFT JOIN SellerStats ss ON ss.sellerId = svs.sellerId " +
+            "WHERE svs.sellerId = :sellerId " +
+            "ORDER BY svs.likeCount DESC, svs.videoId DESC")
+    List<RankDto.VideoLikeRankDto> findLikeRank(String sellerId, Pageable pageable);
+
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.RankDto$VideoLikeRankDto(svs.videoId, svs.videoName, svs.likeCount, ss.likeCount) " +
+            "FROM SellerVideoStats svs LEFT JOIN SellerStats ss ON ss.sellerId = svs.sellerId " +
+            "WHERE svs.sellerId = :sellerId " +
+            "AND (svs.likeCount < :likeCount OR (svs.likeCount = :likeCount AND svs.videoId < :videoId)) " +
+            "ORDER BY svs.likeCount DESC, svs.videoId DESC")
+    List<RankDto.VideoLikeRankDto> findLikeRankAfter(String sellerId, long likeCount, String videoId, Pageable pageable);
+
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.RankDto$VideoAdClickRankDto(svs.videoId, svs.videoName, svs.adClickCount, ss.adClickCount) " +
+            "FROM SellerVideoStats svs LEFT JOIN SellerStats ss ON ss.sellerId = svs.sellerId " +
+            "WHERE svs.sellerId = :sellerId " +
+            "ORDER BY svs.adClickCount DESC, svs.videoId DESC")
+    List<RankDto.VideoAdClickRankDto> findAdClickRank(String sellerId, Pageable pageable);
+
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.RankDto$VideoAdClickRankDto(svs.videoId, svs.videoName, svs.adClickCount, ss.adClickCount) " +
+            "FROM SellerVideoStats svs LEFT JOIN SellerStats ss ON ss.sellerId = svs.sellerId " +
+            "WHERE svs.sellerId = :sellerId " +
+            "AND (svs.adClickCount < :adClickCount OR (svs.adClickCount = :adClickCount AND svs.videoId < :videoId)) " +
+            "ORDER BY svs.adClickCount DESC, svs.videoId DESC")
+    List<RankDto.VideoAdClickRankDto> findAdClickRankAfter(String sellerId, long adClickCount, String videoId, Pageable pageable);
+
+    // projected so the persistence context stays empty; a positive fetch size makes the driver stream rows
+    @QueryHints({@QueryHint(name = FETCH_SIZE, value = "1000"), @QueryHint(name = READ_ONLY, value = "true")})
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.export.VideoStatsExportDto(" +
+            "svs.videoId, svs.videoName, svs.viewCount, svs.likeCount, svs.adClickCount) " +
+            "FROM SellerVideoStats svs " +
+            "WHERE svs.sellerId = :sellerId " +
+            "ORDER BY svs.viewCount DESC")
+    Stream<VideoStatsExportDto> streamBySellerId(String sellerId);
+
+    @Modifying
+    @Query("UPDATE SellerVideoStats svs " +
+            "SET svs.adClickCount = svs.adClickCount + :delta " +
+            "WHERE svs.videoId = :videoId")
+    int addAdClickCount(String videoId, long delta);
+
+    @Modifying
+    @Query("UPDATE SellerVideoStats svs " +
+            "SET svs.videoName = :videoName " +
+            "WHERE svs.videoId = :videoId")
+    int updateVideoName(String videoId, String videoName);
+
+    @Modifying
+    @Query("DELETE FROM SellerVideoStats svs " +
+            "WHERE svs.videoId = :videoId")
+    int deleteByVideoId(String videoId);
+}
@@ -0,0 +1,43 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.entity.StatisticsOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
+
+@Repository
+public interface StatisticsOutboxRepository extends JpaRepository<StatisticsOutbox, Long> {
+    // takes the oldest rows even if a previous lease holder still has them claimed, so rows left behind by a
+    // holder that died are sent before anything newer for their key;
+    // native updates name the tables they touch, otherwise Hibernate clears the whole second-level cache
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "statistics_outbox"))
+    @Query(value = "UPDATE statistics_outbox " +
+            "SET claim_token = :claimToken " +
+            "ORDER BY id " +
+            "LIMIT :batchSize", nativeQuery = true)
+    int claim(String claimToken, int batchSize);
+
+    List<StatisticsOutbox> findByClaimTokenOrderById(String claimToken);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "statistics_outbox"))
+    @Query(value = "UPDATE statistics_outbox " +
+            "SET claim_token = NULL " +
+            "WHERE id IN (:ids)", nativeQuery = true)
+    int releaseByIds(Collection<Long> ids);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "statistics_outbox"))
+    @Query(value = "DELETE FROM statistics_outbox " +
+            "WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(Collection<Long> ids);
+}
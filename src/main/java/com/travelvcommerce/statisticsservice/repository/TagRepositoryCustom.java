@@ -0,0 +1,9 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.entity.Tag;
+
+import java.util.Optional;
+
+public interface TagRepositoryCustom {
+    Optional<Tag> findByTagId(String tagId);
+}
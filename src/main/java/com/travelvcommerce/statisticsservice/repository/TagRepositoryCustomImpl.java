@@ -0,0 +1,18 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.entity.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+@Transactional
+public class TagRepositoryCustomImpl implements TagRepositoryCustom {
+    private final NaturalIdLookup naturalIdLookup;
+
+    @Override
+    public Optional<Tag> findByTagId(String tagId) {
+        return naturalIdLookup.load(Tag.class, tagId);
+    }
+}
@@ -0,0 +1,48 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.dto.TagRankDto;
+import com.travelvcommerce.statisticsservice.entity.TagStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
+
+@Repository
+public interface TagStatsRepository extends JpaRepository<TagStats, Long> {
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.TagRankDto(ts.tagId, ts.tagName, ts.type, ts.viewCount) " +
+            "FROM TagStats ts " +
+            "WHERE ts.type = :type " +
+            "ORDER BY ts.viewCount DESC, ts.tagId DESC")
+    List<TagRankDto> findRank(String type, Pageable pageable);
+
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.TagRankDto(ts.tagId, ts.tagName, ts.type, ts.viewCount) " +
+            "FROM TagStats ts " +
+            "WHERE ts.type = :type " +
+            "AND (ts.viewCount < :views OR (ts.viewCount = :views AND ts.tagId < :tagId)) " +
+            "ORDER BY ts.viewCount DESC, ts.tagId DESC")
+    List<TagRankDto> findRankAfter(String type, long views, String tagId, Pageable pageable);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "tag_stats"))
+    @Query(value = "INSERT IGNORE INTO tag_stats (tag_id, tag_name, type) " +
+            "SELECT t.tag_id, t.content, t.type FROM tags t WHERE t.tag_id = :tagId", nativeQuery = true)
+    int insertIgnore(String tagId);
+
+    @Modifying
+    @Query("UPDATE TagStats ts " +
+            "SET ts.viewCount = ts.viewCount + :delta " +
+            "WHERE ts.tagId = :tagId")
+    int addViewCount(String tagId, long delta);
+
+    @Modifying
+    @Query("DELETE FROM TagStats ts " +
+            "WHERE ts.tagId = :tagId")
+    int deleteByTagId(String tagId);
+}
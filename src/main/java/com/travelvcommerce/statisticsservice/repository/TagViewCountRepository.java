@@ -1,42 +1,28 @@
 package com.travelvcommerce.statisticsservice.repository;
 
-import com.travelvcommerce.statisticsservice.dto.RankDto;
-import com.travelvcommerce.statisticsservice.dto.TagRankDto;
-import com.travelvcommerce.statisticsservice.dto.count.TotalTagViewCountDto;
 import com.travelvcommerce.statisticsservice.entity.TagViewCount;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface TagViewCountRepository extends JpaRepository<TagViewCount, Long> {
-    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.count.TotalTagViewCountDto(tvc.tag, SUM(tvc.viewCount)) " +
-            "FROM TagViewCount tvc " +
-            "WHERE tvc.video.sellerId = :sellerId " +
-            "GROUP BY tvc.tag " +
-            "ORDER BY SUM(tvc.viewCount) DESC")
-    List<TotalTagViewCountDto> findRankBySellerIdOrderByViewCountDesc(String sellerId, Pageable pageable);
-
-    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.TagRankDto(tvc.tag.tagId, tvc.tag.content, tvc.tag.type)" +
+    // tag references a non-primary key and would otherwise be loaded with a select per row
+    @Query("SELECT tvc " +
             "FROM TagViewCount tvc " +
-            "WHERE tvc.tag.type = 'region'" +
-            "GROUP BY tvc.tag " +
-            "ORDER BY SUM(tvc.viewCount) DESC")
-    List<TagRankDto> findRegionRank(Pageable pageable);
+            "JOIN FETCH tvc.tag " +
+            "WHERE tvc.videoId = :videoId")
+    List<TagViewCount> findByVideoId(String videoId);
 
-    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.TagRankDto(tvc.tag.tagId, tvc.tag.content, tvc.tag.type)" +
+    @Query("SELECT CASE WHEN COUNT(tvc) > 0 THEN true ELSE false END " +
             "FROM TagViewCount tvc " +
-            "WHERE tvc.tag.type = 'theme'" +
-            "GROUP BY tvc.tag " +
-            "ORDER BY SUM(tvc.viewCount) DESC")
-    List<TagRankDto> findThemeRank(Pageable pageable);
+            "WHERE tvc.tag.tagId = :tagId")
+    boolean existsByTagId(String tagId);
 
-    @Query("SELECT tvc " +
-            "FROM TagViewCount tvc " +
-            "WHERE tvc.video.videoId = :videoId AND tvc.tag.tagId = :tagId")
-    Optional<TagViewCount> findByVideoIdAndTagId(String videoId, String tagId);
+    @Query("SELECT CASE WHEN COUNT(tvc) > 0 THEN true ELSE false END " +
+            "FROM TagViewCount tvc, Video v " +
+            "WHERE tvc.videoId = v.videoId AND v.sellerId = :sellerId AND tvc.tag.tagId = :tagId")
+    boolean existsBySellerIdAndTagId(String sellerId, String tagId);
 }
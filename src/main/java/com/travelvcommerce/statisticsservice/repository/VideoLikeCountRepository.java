@@ -1,26 +1,38 @@
 package com.travelvcommerce.statisticsservice.repository;
 
+import com.travelvcommerce.statisticsservice.dto.count.VideoCountInfoDto;
 import com.travelvcommerce.statisticsservice.entity.VideoLikeCount;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
-import java.util.List;
+import javax.persistence.QueryHint;
 import java.util.Optional;
 
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
+
 @Repository
 public interface VideoLikeCountRepository extends JpaRepository<VideoLikeCount, Long> {
-    @Query("SELECT vlc " +
-            "FROM VideoLikeCount vlc " +
-            "WHERE vlc.video.videoId = :videoId")
-    Optional<VideoLikeCount> findByVideoId(String videoId);
+    // read back right after a like is written, so it must not go to the replica
+    @Transactional
+    @Query("SELECT new com.travelvcommerce.statisticsservice.dto.count.VideoCountInfoDto(" +
+            "v.videoId, v.videoViewCount.viewCount, v.videoLikeCount.likeCount, " +
+            "(SELECT COALESCE(SUM(acc.clickCount), 0) FROM AdClickCount acc WHERE acc.videoId = v.videoId)) " +
+            "FROM Video v " +
+            "WHERE v.videoId = :videoId")
+    Optional<VideoCountInfoDto> findCountInfoByVideoId(String videoId);
 
-    @Query("SELECT vlc " +
-            "FROM VideoLikeCount vlc " +
-            "WHERE vlc.video.sellerId = :sellerId " +
-            "GROUP BY vlc.video " +
-            "ORDER BY SUM(vlc.likeCount) DESC")
-    List<VideoLikeCount> findRankBySellerIdOrderByLikeCountDesc(String sellerId, Pageable pageable);
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "video_like_counts,seller_video_stats,seller_stats"))
+    @Query(value = "UPDATE video_like_counts vlc " +
+            "JOIN videos v ON v.video_like_count_id = vlc.id " +
+            "LEFT JOIN seller_video_stats svs ON svs.video_id = v.video_id " +
+            "LEFT JOIN seller_stats ss ON ss.seller_id = v.seller_id " +
+            "SET vlc.like_count = vlc.like_count + :delta, svs.like_count = svs.like_count + :delta, " +
+            "ss.like_count = ss.like_count + :delta " +
+            "WHERE v.video_id = :videoId", nativeQuery = true)
+    int addLikeCountWithSellerStats(String videoId, long delta);
 }
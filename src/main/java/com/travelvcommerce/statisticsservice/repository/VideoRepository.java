@@ -5,11 +5,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface VideoRepository extends JpaRepository<Video, Long> {
-    Optional<Video> findByVideoId(String videoId);
+public interface VideoRepository extends JpaRepository<Video, Long>, VideoRepositoryCustom {
+    List<Video> findByVideoIdIn(Collection<String> videoIds);
 
-    void deleteByVideoId(String videoId);
+    @Query("SELECT DISTINCT v.sellerId " +
+            "FROM Video v " +
+            "WHERE v.videoId IN :videoIds")
+    List<String> findSellerIdsByVideoIdIn(Collection<String> videoIds);
 }
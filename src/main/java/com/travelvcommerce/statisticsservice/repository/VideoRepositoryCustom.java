@@ -0,0 +1,11 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.entity.Video;
+
+import java.util.Optional;
+
+public interface VideoRepositoryCustom {
+    Optional<Video> findByVideoId(String videoId);
+
+    Optional<Long> findIdByVideoId(String videoId);
+}
@@ -0,0 +1,25 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.entity.Video;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// a plain transaction so the lookups read the primary; read-only ones are routed to the replica, which may
+// not have a video the consumer has just created
+@RequiredArgsConstructor
+@Transactional
+public class VideoRepositoryCustomImpl implements VideoRepositoryCustom {
+    private final NaturalIdLookup naturalIdLookup;
+
+    @Override
+    public Optional<Video> findByVideoId(String videoId) {
+        return naturalIdLookup.load(Video.class, videoId);
+    }
+
+    @Override
+    public Optional<Long> findIdByVideoId(String videoId) {
+        return naturalIdLookup.loadId(Video.class, videoId).map(Long.class::cast);
+    }
+}
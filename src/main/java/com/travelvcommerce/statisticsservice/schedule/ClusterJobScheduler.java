@@ -0,0 +1,165 @@
+package com.travelvcommerce.statisticsservice.schedule;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs a job, or each shard of a job, on at most one instance at a time. Callers trigger it from
+ * their own @Scheduled method on every instance; whoever takes a shard's lease runs it and the rest
+ * skip that tick. Leases are renewed in the background while the task runs and released after it,
+ * so shards move between instances from tick to tick.
+ */
+@Component
+@Slf4j
+public class ClusterJobScheduler {
+    private final LeaseManager leaseManager;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long leaseMillis;
+    private final ScheduledExecutorService renewalExecutor;
+    private final Map<String, AtomicLong> lastDurations = new ConcurrentHashMap<>();
+
+    public ClusterJobScheduler(LeaseManager leaseManager,
+                               RedisTemplate<String, String> redisTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${statistics.scheduler.lease-ms:30000}") long leaseMillis) {
+        this.leaseManager = leaseManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.leaseMillis = leaseMillis;
+        this.renewalExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-lease-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void runExclusive(String job, Consumer<JobLease> task) {
+        runSharded(job, 1, task);
+    }
+
+    /**
+     * The task gets the lease of the shard it should process and should stop early once
+     * {@link JobLease#isHeld()} turns false.
+     */
+    public void runSharded(String job, int shardCount, Consumer<JobLease> task) {
+        List<Integer> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(shard);
+        }
+        // instances ticking together should not all contend for shard 0 first
+        Collections.shuffle(shards);
+
+        for (int shard : shards) {
+            JobLease lease;
+            try {
+                lease = leaseManager.acquire(job, shard, shardCount, leaseMillis);
+            } catch (Exception e) {
+                log.warn("Could not acquire lease of job {} shard {}: {}", job, shard, e.getMessage());
+                return;
+            }
+
+            if (lease != null) {
+                run(lease, task);
+            }
+        }
+    }
+
+    private void run(JobLease lease, Consumer<JobLease> task) {
+        ScheduledFuture<?> renewal = renewalExecutor.scheduleWithFixedDelay(() -> renew(lease),
+                leaseMillis / 3, leaseMillis / 3, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        String result = "success";
+        try {
+            task.accept(lease);
+        } catch (Exception e) {
+            result = "failure";
+            log.error("Error running job {} shard {}", lease.getJob(), lease.getShard(), e);
+        } finally {
+            renewal.cancel(false);
+            release(lease);
+        }
+
+        long duration = System.nanoTime() - start;
+        meterRegistry.timer("statistics.job.duration", "job", lease.getJob(), "result", result)
+                .record(duration, TimeUnit.NANOSECONDS);
+        lastDuration(lease).set(duration);
+
+        if (result.equals("success")) {
+            recordSuccess(lease);
+        }
+    }
+
+    private void renew(JobLease lease) {
+        try {
+            if (!leaseManager.renew(lease, leaseMillis)) {
+                log.warn("Lost lease of job {} shard {}", lease.getJob(), lease.getShard());
+                lease.lose();
+            }
+        } catch (Exception e) {
+            log.warn("Could not renew lease of job {} shard {}: {}", lease.getJob(), lease.getShard(), e.getMessage());
+        }
+    }
+
+    private void release(JobLease lease) {
+        lease.lose();
+        try {
+            leaseManager.release(lease);
+        } catch (Exception e) {
+            log.warn("Could not release lease of job {} shard {}, it expires on its own: {}", lease.getJob(), lease.getShard(), e.getMessage());
+        }
+    }
+
+    private AtomicLong lastDuration(JobLease lease) {
+        return lastDurations.computeIfAbsent(lease.getJob() + ":" + lease.getShard(), key -> {
+            AtomicLong lastDuration = new AtomicLong();
+            String shard = String.valueOf(lease.getShard());
+            Gauge.builder("statistics.job.last-duration", lastDuration, value -> value.get() / 1e9)
+                    .tag("job", lease.getJob()).tag("shard", shard)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            // read from redis so every instance reports the cluster-wide lag, not just its own runs
+            Gauge.builder("statistics.job.lag", () -> lagSeconds(key))
+                    .tag("job", lease.getJob()).tag("shard", shard)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            return lastDuration;
+        });
+    }
+
+    private void recordSuccess(JobLease lease) {
+        try {
+            redisTemplate.opsForValue().set("jobLastSuccess:" + lease.getJob() + ":" + lease.getShard(), String.valueOf(System.currentTimeMillis()));
+        } catch (Exception e) {
+            log.warn("Could not record success of job {} shard {}: {}", lease.getJob(), lease.getShard(), e.getMessage());
+        }
+    }
+
+    private double lagSeconds(String jobShard) {
+        try {
+            String lastSuccess = redisTemplate.opsForValue().get("jobLastSuccess:" + jobShard);
+            return lastSuccess == null ? Double.NaN : (System.currentTimeMillis() - Long.parseLong(lastSuccess)) / 1e3;
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        renewalExecutor.shutdownNow();
+    }
+}
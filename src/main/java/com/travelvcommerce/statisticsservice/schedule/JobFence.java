@@ -0,0 +1,29 @@
+package com.travelvcommerce.statisticsservice.schedule;
+
+import com.travelvcommerce.statisticsservice.exception.StaleLeaseException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Database side of lease fencing. Called first in a job's write transaction, it records the lease's
+ * token and locks the shard's fence row until commit, so a holder whose lease has already passed to
+ * another instance fails instead of writing alongside it.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobFence {
+    private final JdbcTemplate jdbcTemplate;
+
+    public void check(JobLease lease) {
+        jdbcTemplate.update("INSERT INTO scheduled_job_fences (job_name, shard, fencing_token, updated_at) VALUES (?, ?, ?, NOW(6)) " +
+                        "ON DUPLICATE KEY UPDATE fencing_token = GREATEST(fencing_token, VALUES(fencing_token)), updated_at = NOW(6)",
+                lease.getJob(), lease.getShard(), lease.getFencingToken());
+
+        Long fencingToken = jdbcTemplate.queryForObject("SELECT fencing_token FROM scheduled_job_fences WHERE job_name = ? AND shard = ?",
+                Long.class, lease.getJob(), lease.getShard());
+        if (fencingToken != null && fencingToken > lease.getFencingToken()) {
+            throw new StaleLeaseException("Lease of job " + lease.getJob() + " shard " + lease.getShard() + " was taken over");
+        }
+    }
+}
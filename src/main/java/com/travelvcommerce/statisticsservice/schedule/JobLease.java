@@ -0,0 +1,29 @@
+package com.travelvcommerce.statisticsservice.schedule;
+
+import lombok.Getter;
+
+/**
+ * One instance's hold on a job shard. The fencing token grows with every acquisition of the shard,
+ * so storage that remembers the highest token it has seen can reject a holder whose lease expired.
+ */
+@Getter
+public class JobLease {
+    private final String job;
+    private final int shard;
+    private final int shardCount;
+    private final long fencingToken;
+    private final String value;
+    private volatile boolean held = true;
+
+    JobLease(String job, int shard, int shardCount, long fencingToken, String value) {
+        this.job = job;
+        this.shard = shard;
+        this.shardCount = shardCount;
+        this.fencingToken = fencingToken;
+        this.value = value;
+    }
+
+    void lose() {
+        held = false;
+    }
+}
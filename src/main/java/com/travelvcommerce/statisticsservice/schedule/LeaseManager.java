@@ -0,0 +1,67 @@
+package com.travelvcommerce.statisticsservice.schedule;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Redis leases: the lease key holds "owner:token" with a TTL and is only renewed or deleted by the
+ * value that created it. The token comes from a counter that is never reset.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaseManager {
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+                    "local token = redis.call('INCR', KEYS[2]) " +
+                    "redis.call('SET', KEYS[1], ARGV[1] .. ':' .. token, 'PX', ARGV[2]) " +
+                    "return token", Long.class);
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+                    "return 0", Long.class);
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+                    "return 0", Long.class);
+
+    private final String owner = UUID.randomUUID().toString();
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * Returns null if another instance holds the shard.
+     */
+    public JobLease acquire(String job, int shard, int shardCount, long leaseMillis) {
+        Long token = redisTemplate.execute(ACQUIRE,
+                Arrays.asList(leaseKey(job, shard), fencingTokenKey(job, shard)), owner, String.valueOf(leaseMillis));
+        if (token == null || token == 0) {
+            return null;
+        }
+
+        return new JobLease(job, shard, shardCount, token, owner + ":" + token);
+    }
+
+    public boolean renew(JobLease lease, long leaseMillis) {
+        Long renewed = redisTemplate.execute(RENEW,
+                Collections.singletonList(leaseKey(lease.getJob(), lease.getShard())), lease.getValue(), String.valueOf(leaseMillis));
+        return renewed != null && renewed == 1;
+    }
+
+    public void release(JobLease lease) {
+        redisTemplate.execute(RELEASE, Collections.singletonList(leaseKey(lease.getJob(), lease.getShard())), lease.getValue());
+    }
+
+    // the lease key's hash tag is the whole fencing token key, so both hash to the token key's slot and ACQUIRE
+    // works on Redis Cluster without renaming the counter, which must keep counting from where it is
+    private String leaseKey(String job, int shard) {
+        return "jobLease:{" + fencingTokenKey(job, shard) + "}";
+    }
+
+    private String fencingTokenKey(String job, int shard) {
+        return "jobFencingToken:" + job + ":" + shard;
+    }
+}
@@ -1,20 +0,0 @@
-package com.travelvcommerce.statisticsservice.service;
-
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.stereotype.Service;
-
-@Service
-@Slf4j
-@RequiredArgsConstructor
-public class KafkaProducer {
-    private final KafkaTemplate<String, String> kafkaTemplate;
-
-    public void send(String topic, String payload) {
-        log.info("sending payload='{}' to topic='{}'", payload, topic);
-        kafkaTemplate.send(topic, payload);
-    }
-
-}
@@ -1,9 +1,12 @@
 package com.travelvcommerce.statisticsservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.support.Acknowledgment;
 
 public interface KafkaVideoInfoConsumer {
-    void createVideo(String payload, Acknowledgment acknowledgment);
-    void updateVideo(String payload, Acknowledgment acknowledgment);
+    void createVideo(String payload, Acknowledgment acknowledgment) throws JsonProcessingException;
+    void updateVideo(String payload, Acknowledgment acknowledgment) throws JsonProcessingException;
     void deleteVideo(String payload, Acknowledgment acknowledgment);
+    void handleDeadLetter(ConsumerRecord<String, String> record, Acknowledgment acknowledgment);
 }
@@ -1,20 +1,34 @@
 package com.travelvcommerce.statisticsservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.travelvcommerce.statisticsservice.dto.videoInfo.AdInfoDto;
 import com.travelvcommerce.statisticsservice.dto.videoInfo.TagInfoDto;
 import com.travelvcommerce.statisticsservice.dto.videoInfo.VideoInfoDto;
 import com.travelvcommerce.statisticsservice.entity.*;
+import com.travelvcommerce.statisticsservice.like.LikeMembershipStore;
 import com.travelvcommerce.statisticsservice.repository.*;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,26 +37,41 @@ import java.util.stream.Collectors;
 public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
     private final ObjectMapper objectMapper;
     private final AdClickCountRepository adClickCountRepository;
+    private final AdVideoRepository adVideoRepository;
     private final TagViewCountRepository tagViewCountRepository;
-    private final VideoViewCountRepository videoViewCountRepository;
-    private final VideoLikeCountRepository videoLikeCountRepository;
     private final LikeRepository likeRepository;
     private final TagRepository tagRepository;
     private final VideoRepository videoRepository;
+    private final SellerVideoStatsRepository sellerVideoStatsRepository;
+    private final SellerStatsRepository sellerStatsRepository;
+    private final SellerTagStatsRepository sellerTagStatsRepository;
+    private final TagStatsRepository tagStatsRepository;
+    private final LikeMembershipStore likeMembershipStore;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional
+    @RetryableTopic(attempts = "${statistics.kafka.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${statistics.kafka.retry.delay-ms:1000}",
+                    multiplierExpression = "${statistics.kafka.retry.multiplier:2.0}",
+                    maxDelayExpression = "${statistics.kafka.retry.max-delay-ms:30000}"),
+            numPartitions = "${statistics.kafka.retry.partitions:1}",
+            replicationFactor = "${statistics.kafka.retry.replication-factor:1}",
+            exclude = JsonProcessingException.class,
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            kafkaTemplate = "kafkaTemplate")
     @KafkaListener(topics = "video-create")
-    public void createVideo(String payload, Acknowledgment acknowledgment) {
+    @Timed(value = "statistics.kafka.consume", extraTags = {"topic", "video-create"}, histogram = true)
+    public void createVideo(String payload, Acknowledgment acknowledgment) throws JsonProcessingException {
         log.info("received payload='{}'", payload);
 
         VideoInfoDto.VideoCreateDto videoCreateDto;
 
         try {
             videoCreateDto = objectMapper.readValue(payload, VideoInfoDto.VideoCreateDto.class);
-        } catch (Exception e) {
+        } catch (JsonProcessingException e) {
             log.error("Error converting payload to video", e);
-            return;
+            throw e;
         }
 
         Video video;
@@ -50,19 +79,7 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
             video = createVideoEntity(videoCreateDto);
         } catch (Exception e) {
             log.error("Error creating video", e);
-            return;
-        }
-
-        try {
-            createVideoLikeCount(video);
-        } catch (Exception e) {
-            log.error("Error creating video like count", e);
-        }
-
-        try {
-            createVideoViewCount(video);
-        } catch (Exception e) {
-            log.error("Error creating video view count", e);
+            throw e;
         }
 
         try {
@@ -70,6 +87,7 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
             createTagViewCount(video, tagIds);
         } catch (Exception e) {
             log.error("Error creating tag view count", e);
+            throw e;
         }
 
         try {
@@ -77,6 +95,14 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
             createAdClickCount(video, adIds);
         } catch (Exception e) {
             log.error("Error creating ad click count", e);
+            throw e;
+        }
+
+        try {
+            createSellerStats(video, videoCreateDto);
+        } catch (Exception e) {
+            log.error("Error creating seller stats", e);
+            throw e;
         }
 
         acknowledgment.acknowledge();
@@ -84,17 +110,27 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
 
     @Override
     @Transactional
+    @RetryableTopic(attempts = "${statistics.kafka.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${statistics.kafka.retry.delay-ms:1000}",
+                    multiplierExpression = "${statistics.kafka.retry.multiplier:2.0}",
+                    maxDelayExpression = "${statistics.kafka.retry.max-delay-ms:30000}"),
+            numPartitions = "${statistics.kafka.retry.partitions:1}",
+            replicationFactor = "${statistics.kafka.retry.replication-factor:1}",
+            exclude = JsonProcessingException.class,
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            kafkaTemplate = "kafkaTemplate")
     @KafkaListener(topics = "video-update")
-    public void updateVideo(String payload, Acknowledgment acknowledgment) {
+    @Timed(value = "statistics.kafka.consume", extraTags = {"topic", "video-update"}, histogram = true)
+    public void updateVideo(String payload, Acknowledgment acknowledgment) throws JsonProcessingException {
         log.info("received payload='{}'", payload);
 
         VideoInfoDto.VideoUpdateDto videoUpdateDto;
 
         try {
             videoUpdateDto = objectMapper.readValue(payload, VideoInfoDto.VideoUpdateDto.class);
-        } catch (Exception e) {
+        } catch (JsonProcessingException e) {
             log.error("Error converting payload to video", e);
-            return;
+            throw e;
         }
 
         String videoId = videoUpdateDto.getVideoId();
@@ -105,18 +141,21 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
             updateAdClickCount(video, videoUpdateDto);
         } catch (Exception e) {
             log.error("Error updating ad click count", e);
+            throw e;
         }
 
         try {
             updateTagViewCount(video, videoUpdateDto);
         } catch (Exception e) {
             log.error("Error updating tag view count", e);
+            throw e;
         }
 
         try {
             updateVideoName(video, videoUpdateDto);
         } catch (Exception e) {
             log.error("Error updating video name", e);
+            throw e;
         }
 
         acknowledgment.acknowledge();
@@ -124,21 +163,52 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
 
     @Override
     @Transactional
+    @RetryableTopic(attempts = "${statistics.kafka.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${statistics.kafka.retry.delay-ms:1000}",
+                    multiplierExpression = "${statistics.kafka.retry.multiplier:2.0}",
+                    maxDelayExpression = "${statistics.kafka.retry.max-delay-ms:30000}"),
+            numPartitions = "${statistics.kafka.retry.partitions:1}",
+            replicationFactor = "${statistics.kafka.retry.replication-factor:1}",
+            exclude = JsonProcessingException.class,
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            kafkaTemplate = "kafkaTemplate")
     @KafkaListener(topics = "video-delete")
+    @Timed(value = "statistics.kafka.consume", extraTags = {"topic", "video-delete"}, histogram = true)
     public void deleteVideo(String payload, Acknowledgment acknowledgment) {
         log.info("received payload='{}'", payload);
         String videoId = payload;
 
         try {
             log.info("Deleting video with videoId={}", videoId);
-            videoRepository.deleteByVideoId(videoId);
+            deleteVideoWithSellerStats(videoId);
+            likeMembershipStore.evict(videoId);
         } catch (Exception e) {
             log.error("Error deleting video", e);
+            throw e;
         }
 
         acknowledgment.acknowledge();
     }
 
+    // reached after the retry topics are exhausted, or directly for payloads that cannot be parsed;
+    // the failure metadata is in the kafka_original-* and kafka_exception-* headers added by the dead-letter publisher
+    @Override
+    @DltHandler
+    public void handleDeadLetter(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
+        String originalTopic = headerValue(record, KafkaHeaders.ORIGINAL_TOPIC);
+
+        log.error("Dead-lettered payload='{}' from topic={} exception={} message={}", record.value(), originalTopic,
+                headerValue(record, KafkaHeaders.EXCEPTION_CAUSE_FQCN), headerValue(record, KafkaHeaders.EXCEPTION_MESSAGE));
+        meterRegistry.counter("statistics.kafka.dead-letter", "topic", String.valueOf(originalTopic)).increment();
+
+        acknowledgment.acknowledge();
+    }
+
+    private String headerValue(ConsumerRecord<String, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
     private Video createVideoEntity(VideoInfoDto.VideoCreateDto videoCreateDto) {
         Video video = Video.builder()
                 .videoId(videoCreateDto.getVideoId())
@@ -146,40 +216,25 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
                 .sellerId(videoCreateDto.getSellerId())
                 .build();
 
+        // the counters are set before the first save so the video row is inserted once, with their ids
+        video.setVideoLikeCount(VideoLikeCount.builder().likeCount(0).build());
+        video.setVideoViewCount(VideoViewCount.builder().viewCount(0).build());
+
         videoRepository.save(video);
         return video;
     }
 
-    private void createVideoLikeCount(Video video) {
-        VideoLikeCount videoLikeCount = VideoLikeCount.builder()
-                .video(video)
-                .likeCount(0)
-                .build();
-
-        videoLikeCountRepository.save(videoLikeCount);
-        video.setVideoLikeCount(videoLikeCount);
-    }
-
-    private void createVideoViewCount(Video video) {
-        VideoViewCount videoViewCount = VideoViewCount.builder()
-                .video(video)
-                .viewCount(0)
-                .build();
-
-        videoViewCountRepository.save(videoViewCount);
-        video.setVideoViewCount(videoViewCount);
-    }
-
     private void createTagViewCount(Video video, List<String> tagIds) {
 
         for (String tagId : tagIds) {
             TagViewCount tagViewCount = TagViewCount.builder()
                     .tag(tagRepository.findByTagId(tagId).get())
-                    .video(video)
+                    .videoId(video.getVideoId())
                     .viewCount(0)
                     .build();
 
             tagViewCountRepository.save(tagViewCount);
+            tagStatsRepository.insertIgnore(tagId);
         }
     }
 
@@ -187,7 +242,7 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
         for (String adId : adIds) {
             AdClickCount adClickCount = AdClickCount.builder()
                     .adId(adId)
-                    .video(video)
+                    .videoId(video.getVideoId())
                     .clickCount(0)
                     .build();
 
@@ -204,17 +259,18 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
                 .map(AdInfoDto::getAdId)
                 .collect(Collectors.toList());
 
-        List<AdClickCount> adClickCountList = video.getAdClickCounts();
+        List<AdClickCount> adClickCountList = adClickCountRepository.findByVideoId(video.getVideoId());
 
         List<String> oldAdIdList = adClickCountList.stream()
                 .map(AdClickCount::getAdId)
                 .collect(Collectors.toList());
 
-        oldAdIdList.stream().forEach(adId -> {
-            if (!newAdIdList.contains(adId)) {
-                AdClickCount adClickCount = adClickCountRepository.findByAdId(adId).get();
-                adClickCountList.remove(adClickCount);
+        adClickCountList.stream().forEach(adClickCount -> {
+            if (!newAdIdList.contains(adClickCount.getAdId())) {
                 adClickCountRepository.delete(adClickCount);
+                adVideoRepository.evictAfterCommit(List.of(adClickCount.getId()));
+                sellerVideoStatsRepository.addAdClickCount(video.getVideoId(), -adClickCount.getClickCount());
+                sellerStatsRepository.addAdClickCount(video.getSellerId(), -adClickCount.getClickCount());
             }
         });
 
@@ -222,7 +278,7 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
             if (!oldAdIdList.contains(adId)) {
                 AdClickCount adClickCount = AdClickCount.builder()
                         .adId(adId)
-                        .video(video)
+                        .videoId(video.getVideoId())
                         .clickCount(0)
                         .build();
 
@@ -243,18 +299,17 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
                 .map(TagInfoDto::getTagId)
                 .collect(Collectors.toList());
 
-        List<TagViewCount> tagViewCountList = video.getTagViewCounts();
+        List<TagViewCount> tagViewCountList = tagViewCountRepository.findByVideoId(videoId);
 
         List<String> oldTagIdList = tagViewCountList.stream()
                 .map(TagViewCount::getTagId)
                 .collect(Collectors.toList());
 
 
-        oldTagIdList.stream().forEach(tagId -> {
-            if (!newTagIdList.contains(tagId)) {
-                TagViewCount tagViewCount = tagViewCountRepository.findByVideoIdAndTagId(videoId, tagId).get();
-                tagViewCountList.remove(tagViewCount);
+        tagViewCountList.stream().forEach(tagViewCount -> {
+            if (!newTagIdList.contains(tagViewCount.getTagId())) {
                 tagViewCountRepository.delete(tagViewCount);
+                removeTagViews(video.getSellerId(), tagViewCount.getTagId(), tagViewCount.getViewCount());
             }
         });
 
@@ -262,11 +317,13 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
             if (!oldTagIdList.contains(tagInfoDto.getTagId())) {
                 TagViewCount tagViewCount = TagViewCount.builder()
                         .tag(tagRepository.findByTagId(tagInfoDto.getTagId()).get())
-                        .video(video)
+                        .videoId(video.getVideoId())
                         .viewCount(0)
                         .build();
 
                 tagViewCountRepository.save(tagViewCount);
+                tagStatsRepository.insertIgnore(tagInfoDto.getTagId());
+                createSellerTagStats(video.getSellerId(), tagInfoDto.getTagId());
             }
         });
     }
@@ -280,8 +337,89 @@ public class KafkaVideoInfoConsumerImpl implements KafkaVideoInfoConsumer {
 
         try {
             video.updateVideoName(videoName);
+            sellerVideoStatsRepository.updateVideoName(video.getVideoId(), videoName);
         } catch (Exception e) {
             log.error("Error updating video name", e);
+            throw e;
         }
     }
+
+    private void createSellerStats(Video video, VideoInfoDto.VideoCreateDto videoCreateDto) {
+        SellerVideoStats sellerVideoStats = SellerVideoStats.builder()
+                .sellerId(video.getSellerId())
+                .videoId(video.getVideoId())
+                .videoName(video.getVideoName())
+                .build();
+
+        sellerVideoStatsRepository.save(sellerVideoStats);
+        sellerStatsRepository.insertIgnore(video.getSellerId());
+
+        if (videoCreateDto.getVideoTags() == null) {
+            return;
+        }
+
+        videoCreateDto.getVideoTags().stream().forEach(tagInfoDto -> {
+            createSellerTagStats(video.getSellerId(), tagInfoDto.getTagId());
+        });
+    }
+
+    private void createSellerTagStats(String sellerId, String tagId) {
+        if (sellerTagStatsRepository.existsBySellerIdAndTagId(sellerId, tagId)) {
+            return;
+        }
+
+        SellerTagStats sellerTagStats = SellerTagStats.builder()
+                .sellerId(sellerId)
+                .tagId(tagId)
+                .tagName(tagRepository.findByTagId(tagId).get().getContent())
+                .build();
+
+        sellerTagStatsRepository.save(sellerTagStats);
+    }
+
+    // a tag left on no video drops out of the tag rank, and out of the seller's once the seller has no video with it
+    private void removeTagViews(String sellerId, String tagId, long viewCount) {
+        tagStatsRepository.addViewCount(tagId, -viewCount);
+
+        if (!tagViewCountRepository.existsByTagId(tagId)) {
+            tagStatsRepository.deleteByTagId(tagId);
+        }
+
+        removeSellerTagViews(sellerId, tagId, viewCount);
+    }
+
+    private void removeSellerTagViews(String sellerId, String tagId, long viewCount) {
+        sellerTagStatsRepository.addViewCount(sellerId, List.of(tagId), -viewCount);
+
+        if (!tagViewCountRepository.existsBySellerIdAndTagId(sellerId, tagId)) {
+            sellerTagStatsRepository.deleteBySellerIdAndTagId(sellerId, tagId);
+        }
+    }
+
+    private void deleteVideoWithSellerStats(String videoId) {
+        Optional<Video> video = videoRepository.findByVideoId(videoId);
+
+        if (video.isEmpty()) {
+            return;
+        }
+
+        String sellerId = video.get().getSellerId();
+        List<TagViewCount> tagViewCountList = tagViewCountRepository.findByVideoId(videoId);
+        Map<String, Long> tagViewCounts = tagViewCountList.stream()
+                .collect(Collectors.toMap(TagViewCount::getTagId, TagViewCount::getViewCount));
+
+        List<AdClickCount> adClickCountList = adClickCountRepository.findByVideoId(videoId);
+        List<Long> adClickCountIds = adClickCountList.stream()
+                .map(AdClickCount::getId)
+                .collect(Collectors.toList());
+
+        likeRepository.deleteByVideoId(videoId);
+        tagViewCountRepository.deleteAll(tagViewCountList);
+        adClickCountRepository.deleteAll(adClickCountList);
+        videoRepository.delete(video.get());
+        adVideoRepository.evictAfterCommit(adClickCountIds);
+        sellerStatsRepository.subtractVideoStats(videoId);
+        sellerVideoStatsRepository.deleteByVideoId(videoId);
+        tagViewCounts.forEach((tagId, viewCount) -> removeTagViews(sellerId, tagId, viewCount));
+    }
 }
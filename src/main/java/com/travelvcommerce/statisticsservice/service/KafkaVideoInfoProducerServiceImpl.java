@@ -3,19 +3,28 @@ package com.travelvcommerce.statisticsservice.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.travelvcommerce.statisticsservice.dto.count.VideoCountInfoDto;
+import com.travelvcommerce.statisticsservice.entity.StatisticsOutbox;
+import com.travelvcommerce.statisticsservice.repository.StatisticsOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.transaction.Transactional;
+
+/**
+ * Writes statistics-update events to the outbox; {@code StatisticsOutboxRelay} publishes them.
+ * Callers must already be in the transaction that changed the counters, so an event exists exactly
+ * when its change was committed.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class KafkaVideoInfoProducerServiceImpl implements KafkaVideoInfoProducerService {
     private final ObjectMapper objectMapper;
-    private final KafkaProducer kafkaProducer;
+    private final StatisticsOutboxRepository statisticsOutboxRepository;
 
     @Override
+    @Transactional(Transactional.TxType.MANDATORY)
     public void updateVideoStatistics(VideoCountInfoDto videoCountInfoDto) {
         String topic = "statistics-update";
 
@@ -27,6 +36,11 @@ public class KafkaVideoInfoProducerServiceImpl implements KafkaVideoInfoProducer
             throw new RuntimeException("Error publishing created video");
         }
 
-        kafkaProducer.send(topic, videoJsonString);
+        StatisticsOutbox statisticsOutbox = StatisticsOutbox.builder()
+                .topic(topic)
+                .messageKey(videoCountInfoDto.getVideoId())
+                .payload(videoJsonString)
+                .build();
+        statisticsOutboxRepository.save(statisticsOutbox);
     }
 }
@@ -0,0 +1,7 @@
+package com.travelvcommerce.statisticsservice.service;
+
+public interface LikeAuditService {
+    boolean applyLike(String videoId, String userId);
+
+    boolean applyUnlike(String videoId, String userId);
+}
@@ -0,0 +1,64 @@
+package com.travelvcommerce.statisticsservice.service;
+
+import com.travelvcommerce.statisticsservice.dto.count.VideoCountInfoDto;
+import com.travelvcommerce.statisticsservice.repository.LikeRepository;
+import com.travelvcommerce.statisticsservice.repository.SellerDailyStatsRepository;
+import com.travelvcommerce.statisticsservice.repository.VideoLikeCountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+
+/**
+ * Writes likes and like counts to MariaDB for the like audit relay.
+ * Each write is idempotent: the counters only move when the insert or delete changed a row,
+ * so a replayed or duplicated write leaves the counts untouched.
+ * The video's resulting counts are written to the statistics outbox in the same transaction.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LikeAuditServiceImpl implements LikeAuditService {
+    private final LikeRepository likeRepository;
+    private final VideoLikeCountRepository videoLikeCountRepository;
+    private final SellerDailyStatsRepository sellerDailyStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaVideoInfoProducerService kafkaVideoInfoProducerService;
+
+    @Override
+    public boolean applyLike(String videoId, String userId) {
+        return transactionTemplate.execute(status -> {
+            if (likeRepository.insertIgnore(videoId, userId) == 0) {
+                return false;
+            }
+
+            videoLikeCountRepository.addLikeCountWithSellerStats(videoId, 1);
+            sellerDailyStatsRepository.addLikeCount(videoId, LocalDate.now(), 1);
+            publishCounts(videoId);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean applyUnlike(String videoId, String userId) {
+        return transactionTemplate.execute(status -> {
+            if (likeRepository.deleteByVideoIdAndUserId(videoId, userId) == 0) {
+                return false;
+            }
+
+            videoLikeCountRepository.addLikeCountWithSellerStats(videoId, -1);
+            sellerDailyStatsRepository.addLikeCount(videoId, LocalDate.now(), -1);
+            publishCounts(videoId);
+            return true;
+        });
+    }
+
+    private void publishCounts(String videoId) {
+        VideoCountInfoDto videoCountInfoDto = videoLikeCountRepository.findCountInfoByVideoId(videoId)
+                .orElseThrow(() -> new NoSuchElementException("Video not found"));
+        kafkaVideoInfoProducerService.updateVideoStatistics(videoCountInfoDto);
+    }
+}
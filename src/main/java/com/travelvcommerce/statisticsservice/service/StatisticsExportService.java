@@ -0,0 +1,10 @@
+package com.travelvcommerce.statisticsservice.service;
+
+import com.travelvcommerce.statisticsservice.dto.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface StatisticsExportService {
+    void exportSellerStatistics(String sellerId, ExportFormat format, OutputStream outputStream) throws IOException;
+}
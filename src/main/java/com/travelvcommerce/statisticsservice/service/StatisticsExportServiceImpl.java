@@ -0,0 +1,135 @@
+package com.travelvcommerce.statisticsservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.dto.export.ExportFormat;
+import com.travelvcommerce.statisticsservice.dto.export.TagStatsExportDto;
+import com.travelvcommerce.statisticsservice.dto.export.VideoStatsExportDto;
+import com.travelvcommerce.statisticsservice.repository.SellerTagStatsRepository;
+import com.travelvcommerce.statisticsservice.repository.SellerVideoStatsRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StatisticsExportServiceImpl implements StatisticsExportService {
+    private final SellerVideoStatsRepository sellerVideoStatsRepository;
+    private final SellerTagStatsRepository sellerTagStatsRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Timed(value = "statistics.export", histogram = true)
+    public void exportSellerStatistics(String sellerId, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ExportWriter exportWriter = format == ExportFormat.CSV ? new CsvExportWriter(writer) : new NdjsonExportWriter(writer);
+
+        // rows go straight from the result set to the response, so nothing is held beyond the fetch size
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<VideoStatsExportDto> videos = sellerVideoStatsRepository.streamBySellerId(sellerId)) {
+                Iterator<VideoStatsExportDto> iterator = videos.iterator();
+                while (iterator.hasNext()) {
+                    exportWriter.writeVideo(iterator.next());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            try (Stream<TagStatsExportDto> tags = sellerTagStatsRepository.streamBySellerId(sellerId)) {
+                Iterator<TagStatsExportDto> iterator = tags.iterator();
+                while (iterator.hasNext()) {
+                    exportWriter.writeTag(iterator.next());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        writer.flush();
+    }
+
+    private interface ExportWriter {
+        void writeVideo(VideoStatsExportDto video) throws IOException;
+
+        void writeTag(TagStatsExportDto tag) throws IOException;
+    }
+
+    private class NdjsonExportWriter implements ExportWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        private NdjsonExportWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeVideo(VideoStatsExportDto video) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "video");
+            generator.writeStringField("videoId", video.getVideoId());
+            generator.writeStringField("videoName", video.getVideoName());
+            generator.writeNumberField("views", video.getViews());
+            generator.writeNumberField("likes", video.getLikes());
+            generator.writeNumberField("adClicks", video.getAdClicks());
+            generator.writeEndObject();
+            endLine();
+        }
+
+        @Override
+        public void writeTag(TagStatsExportDto tag) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "tag");
+            generator.writeStringField("tagId", tag.getTagId());
+            generator.writeStringField("tagName", tag.getTagName());
+            generator.writeNumberField("views", tag.getViews());
+            generator.writeEndObject();
+            endLine();
+        }
+
+        private void endLine() throws IOException {
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+
+    private static class CsvExportWriter implements ExportWriter {
+        private final Writer writer;
+
+        private CsvExportWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write("type,id,name,views,likes,adClicks\r\n");
+        }
+
+        @Override
+        public void writeVideo(VideoStatsExportDto video) throws IOException {
+            writer.write("video," + escape(video.getVideoId()) + "," + escape(video.getVideoName()) + ","
+                    + video.getViews() + "," + video.getLikes() + "," + video.getAdClicks() + "\r\n");
+        }
+
+        @Override
+        public void writeTag(TagStatsExportDto tag) throws IOException {
+            writer.write("tag," + escape(tag.getTagId()) + "," + escape(tag.getTagName()) + ","
+                    + tag.getViews() + ",,\r\n");
+        }
+
+        private String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+}
@@ -10,4 +10,10 @@ public interface StatisticsRankService {
     RankResponseDto.TagViewRankResponseDto getTagViewRank(String sellerId, int size, boolean refresh);
     RankResponseDto.VideoLikeRankResponseDto getVideoLikeRank(String sellerId, int size, boolean refresh);
     RankResponseDto.VideoAdClickRankResponseDto getAdClickRank(String sellerId, int size, boolean refresh);
+    RankResponseDto.VideoViewRankResponseDto getVideoViewRankAfter(String sellerId, String cursor, int size);
+    RankResponseDto.TagViewRankResponseDto getTagViewRankAfter(String sellerId, String cursor, int size);
+    RankResponseDto.VideoLikeRankResponseDto getVideoLikeRankAfter(String sellerId, String cursor, int size);
+    RankResponseDto.VideoAdClickRankResponseDto getAdClickRankAfter(String sellerId, String cursor, int size);
+    RankResponseDto.DashboardResponseDto getDashboard(String sellerId, int size);
+    void refreshSellerRanks(String sellerId);
 }
@@ -1,286 +1,421 @@
 package com.travelvcommerce.statisticsservice.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.cache.RankCache;
+import com.travelvcommerce.statisticsservice.cache.RankCacheEntry;
+import com.travelvcommerce.statisticsservice.dto.RankCursor;
 import com.travelvcommerce.statisticsservice.dto.RankDto;
 import com.travelvcommerce.statisticsservice.dto.RankResponseDto;
-import com.travelvcommerce.statisticsservice.dto.count.TotalAdClickCountDto;
-import com.travelvcommerce.statisticsservice.dto.count.TotalTagViewCountDto;
-import com.travelvcommerce.statisticsservice.entity.VideoLikeCount;
-import com.travelvcommerce.statisticsservice.entity.VideoViewCount;
-
-import com.travelvcommerce.statisticsservice.repository.AdClickCountRepository;
-import com.travelvcommerce.statisticsservice.repository.TagViewCountRepository;
-import com.travelvcommerce.statisticsservice.repository.VideoLikeCountRepository;
-import com.travelvcommerce.statisticsservice.repository.VideoViewCountRepository;
+import com.travelvcommerce.statisticsservice.repository.SellerTagStatsRepository;
+import com.travelvcommerce.statisticsservice.repository.SellerVideoStatsRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.transaction.Transactional;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class StatisticsRankServiceImpl implements StatisticsRankService {
-    private final VideoViewCountRepository videoViewCountRepository;
-    private final TagViewCountRepository tagViewCountRepository;
-    private final VideoLikeCountRepository videoLikeCountRepository;
-    private final AdClickCountRepository adClickCountRepository;
-    private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final SellerVideoStatsRepository sellerVideoStatsRepository;
+    private final SellerTagStatsRepository sellerTagStatsRepository;
+    private final RankCache rankCache;
+    private final ThreadPoolTaskExecutor rankAggregationExecutor;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
     @Override
-    @Transactional
+    @Timed(value = "statistics.rank", extraTags = {"rank", "videoViewRank"}, histogram = true)
     public RankResponseDto.VideoViewRankResponseDto getVideoViewRank(String sellerId, int size, boolean refresh) {
         String videoViewRankKey = "videoViewRank:" + sellerId;
 
-        if (!refresh && redisTemplate.hasKey(videoViewRankKey)) {
-            String value = redisTemplate.opsForValue().get(videoViewRankKey);
-            String aggregatedAt = value.substring(0, value.indexOf("&"));
-            String stringVideoViewRankDtoList = value.substring(aggregatedAt.length() + 1);
-            List<RankDto.VideoViewRankDto> videoViewRankDtoList = new ArrayList<>();
-            try {
-                videoViewRankDtoList = objectMapper.readValue(stringVideoViewRankDtoList, objectMapper.getTypeFactory().constructCollectionType(List.class, RankDto.VideoViewRankDto.class));
-            } catch (Exception e) {
-                log.error("Error parsing video view rank value", e);
-            }
-
-            if (videoViewRankDtoList.size() == size) {
-                RankResponseDto.VideoViewRankResponseDto videoViewRankResponseDto = RankResponseDto.VideoViewRankResponseDto.builder()
-                        .aggregatedAt(aggregatedAt)
-                        .videoViewRank(videoViewRankDtoList)
-                        .build();
+        if (!refresh) {
+            RankResponseDto.VideoViewRankResponseDto videoViewRankResponseDto = parseVideoViewRank(rankCache.get(videoViewRankKey, RankDto.VideoViewRankDto.class), size);
 
+            if (videoViewRankResponseDto != null) {
                 return videoViewRankResponseDto;
             }
         }
 
-        Pageable pageable = PageRequest.of(0, size);
-        List<VideoViewCount> videoViewCountTop10 = videoViewCountRepository.findRankBySellerIdOrderByViewCountDesc(sellerId, pageable);
+        return readOnlyTransactionTemplate.execute(status -> aggregateVideoViewRank(sellerId, size));
+    }
 
-        List<RankDto.VideoViewRankDto> videoViewRankDtoList = new ArrayList<>();
+    private RankResponseDto.VideoViewRankResponseDto parseVideoViewRank(RankCacheEntry<RankDto.VideoViewRankDto> entry, int size) {
+        List<RankDto.VideoViewRankDto> items = cachedItems(entry, size);
+        if (items == null) {
+            return null;
+        }
 
-        videoViewCountTop10.stream().forEach(videoViewCount -> {
-            videoViewRankDtoList.add(RankDto.VideoViewRankDto.builder()
-                    .videoId(videoViewCount.getVideoId())
-                    .videoName(videoViewCount.getVideoName())
-                    .views(videoViewCount.getViewCount())
-                    .build());
-        });
+        RankResponseDto.VideoViewRankResponseDto videoViewRankResponseDto = RankResponseDto.VideoViewRankResponseDto.builder()
+                .aggregatedAt(entry.getAggregatedAt())
+                .videoViewRank(items)
+                .nextCursor(nextCursor(items, size, item -> new RankCursor(item.getViews(), item.getVideoId())))
+                .build();
+
+        return videoViewRankResponseDto;
+    }
+
+    private RankResponseDto.VideoViewRankResponseDto aggregateVideoViewRank(String sellerId, int size) {
+        String videoViewRankKey = "videoViewRank:" + sellerId;
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<RankDto.VideoViewRankDto> videoViewRankDtoList = sellerVideoStatsRepository.findViewRank(sellerId, pageable);
 
         String aggregatedAt = Timestamp.valueOf(LocalDateTime.now()).toString();
 
         if (!videoViewRankDtoList.isEmpty()) {
-            try {
-                String stringVideoViewRankDtoList = objectMapper.writeValueAsString(videoViewRankDtoList);
-                String value = aggregatedAt + "&" + stringVideoViewRankDtoList;
-
-                redisTemplate.opsForValue().set(videoViewRankKey, value);
-                redisTemplate.expire(videoViewRankKey, 60 * 60 * 1, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                log.error("Error caching video view rank value", e);
-            }
+            rankCache.put(videoViewRankKey, new RankCacheEntry<>(aggregatedAt, videoViewRankDtoList, size), 60 * 60 * 1);
         }
 
         RankResponseDto.VideoViewRankResponseDto videoViewRankResponseDto = RankResponseDto.VideoViewRankResponseDto.builder()
                 .aggregatedAt(aggregatedAt)
                 .videoViewRank(videoViewRankDtoList)
+                .nextCursor(nextCursor(videoViewRankDtoList, size, item -> new RankCursor(item.getViews(), item.getVideoId())))
                 .build();
 
         return videoViewRankResponseDto;
     }
 
     @Override
-    @Transactional
+    @Timed(value = "statistics.rank", extraTags = {"rank", "tagViewRank"}, histogram = true)
     public RankResponseDto.TagViewRankResponseDto getTagViewRank(String sellerId, int size, boolean refresh) {
         String tagViewRankKey = "tagViewRank:" + sellerId;
 
-        if (!refresh && redisTemplate.hasKey(tagViewRankKey)) {
-            String value = redisTemplate.opsForValue().get(tagViewRankKey);
-            String aggregatedAt = value.substring(0, value.indexOf("&"));
-            String stringTagViewRankDtoList = value.substring(aggregatedAt.length() + 1);
-            List<RankDto.TagViewRankDto> tagViewRankDtoList = new ArrayList<>();
+        if (!refresh) {
+            RankResponseDto.TagViewRankResponseDto tagViewRankResponseDto = parseTagViewRank(rankCache.get(tagViewRankKey, RankDto.TagViewRankDto.class), size);
 
-            try {
-                tagViewRankDtoList =  objectMapper.readValue(stringTagViewRankDtoList, objectMapper.getTypeFactory().constructCollectionType(List.class, RankDto.TagViewRankDto.class));
-            } catch (Exception e) {
-                log.error("Error parsing tag view rank value", e);
+            if (tagViewRankResponseDto != null) {
+                return tagViewRankResponseDto;
             }
+        }
 
-            if (tagViewRankDtoList.size() == size) {
-                RankResponseDto.TagViewRankResponseDto tagViewRankResponseDto = RankResponseDto.TagViewRankResponseDto.builder()
-                        .aggregatedAt(aggregatedAt)
-                        .tagViewRank(tagViewRankDtoList)
-                        .build();
+        return readOnlyTransactionTemplate.execute(status -> aggregateTagViewRank(sellerId, size));
+    }
 
-                return tagViewRankResponseDto;
-            }
+    private RankResponseDto.TagViewRankResponseDto parseTagViewRank(RankCacheEntry<RankDto.TagViewRankDto> entry, int size) {
+        List<RankDto.TagViewRankDto> items = cachedItems(entry, size);
+        if (items == null) {
+            return null;
         }
 
-        Pageable pageable = PageRequest.of(0, size);
-        List<TotalTagViewCountDto> tagViewCountTop10 = tagViewCountRepository.findRankBySellerIdOrderByViewCountDesc(sellerId, pageable);
+        RankResponseDto.TagViewRankResponseDto tagViewRankResponseDto = RankResponseDto.TagViewRankResponseDto.builder()
+                .aggregatedAt(entry.getAggregatedAt())
+                .tagViewRank(items)
+                .nextCursor(nextCursor(items, size, item -> new RankCursor(item.getViews(), item.getTagId())))
+                .build();
 
-        List<RankDto.TagViewRankDto> tagViewRankDtoList = new ArrayList<>();
+        return tagViewRankResponseDto;
+    }
 
-        tagViewCountTop10.stream().forEach(tagViewCount -> {
-            tagViewRankDtoList.add(RankDto.TagViewRankDto.builder()
-                    .tagId(tagViewCount.getTag().getTagId())
-                    .tagName(tagViewCount.getTag().getContent())
-                    .views(tagViewCount.getTotalViewCount())
-                    .build());
-        });
+    private RankResponseDto.TagViewRankResponseDto aggregateTagViewRank(String sellerId, int size) {
+        String tagViewRankKey = "tagViewRank:" + sellerId;
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<RankDto.TagViewRankDto> tagViewRankDtoList = sellerTagStatsRepository.findViewRank(sellerId, pageable);
 
         String aggregatedAt = Timestamp.valueOf(LocalDateTime.now()).toString();
 
         if (!tagViewRankDtoList.isEmpty()) {
-            try {
-                String stringTagViewRankDtoList = objectMapper.writeValueAsString(tagViewRankDtoList);
-                String value = aggregatedAt + "&" + stringTagViewRankDtoList;
-
-                redisTemplate.opsForValue().set(tagViewRankKey, value);
-                redisTemplate.expire(tagViewRankKey, 60 * 60 * 1, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                log.error("Error caching tag view rank value", e);
-            }
+            rankCache.put(tagViewRankKey, new RankCacheEntry<>(aggregatedAt, tagViewRankDtoList, size), 60 * 60 * 1);
         }
 
         RankResponseDto.TagViewRankResponseDto tagViewRankResponseDto = RankResponseDto.TagViewRankResponseDto.builder()
                 .aggregatedAt(aggregatedAt)
                 .tagViewRank(tagViewRankDtoList)
+                .nextCursor(nextCursor(tagViewRankDtoList, size, item -> new RankCursor(item.getViews(), item.getTagId())))
                 .build();
 
         return tagViewRankResponseDto;
     }
 
     @Override
-    @Transactional
+    @Timed(value = "statistics.rank", extraTags = {"rank", "videoLikeRank"}, histogram = true)
     public RankResponseDto.VideoLikeRankResponseDto getVideoLikeRank(String sellerId, int size, boolean refresh) {
         String videoLikeRankKey = "videoLikeRank:" + sellerId;
 
-        if (!refresh && redisTemplate.hasKey(videoLikeRankKey)) {
-            String value = redisTemplate.opsForValue().get(videoLikeRankKey);
-            String aggregatedAt = value.substring(0, value.indexOf("&"));
-            String stringVideoLikeRankDtoList = value.substring(aggregatedAt.length() + 1);
-            List<RankDto.VideoLikeRankDto> videoLikeRankDtoList = new ArrayList<>();
-            try {
-                videoLikeRankDtoList =  objectMapper.readValue(stringVideoLikeRankDtoList, objectMapper.getTypeFactory().constructCollectionType(List.class, RankDto.VideoLikeRankDto.class));
-            } catch (Exception e) {
-                log.error("Error parsing video like rank value", e);
-            }
-
-            if (videoLikeRankDtoList.size() == size) {
-                RankResponseDto.VideoLikeRankResponseDto videoLikeRankResponseDto = RankResponseDto.VideoLikeRankResponseDto.builder()
-                        .aggregatedAt(aggregatedAt)
-                        .videoLikeRank(videoLikeRankDtoList)
-                        .build();
+        if (!refresh) {
+            RankResponseDto.VideoLikeRankResponseDto videoLikeRankResponseDto = parseVideoLikeRank(rankCache.get(videoLikeRankKey, RankDto.VideoLikeRankDto.class), size);
 
+            if (videoLikeRankResponseDto != null) {
                 return videoLikeRankResponseDto;
             }
         }
 
-        Pageable pageable = PageRequest.of(0, size);
-        List<VideoLikeCount> videoLikeCountTop10 = videoLikeCountRepository.findRankBySellerIdOrderByLikeCountDesc(sellerId, pageable);
+        return readOnlyTransactionTemplate.execute(status -> aggregateVideoLikeRank(sellerId, size));
+    }
 
-        List<RankDto.VideoLikeRankDto> videoLikeRankDtoList = new ArrayList<>();
+    private RankResponseDto.VideoLikeRankResponseDto parseVideoLikeRank(RankCacheEntry<RankDto.VideoLikeRankDto> entry, int size) {
+        List<RankDto.VideoLikeRankDto> items = cachedItems(entry, size);
+        if (items == null) {
+            return null;
+        }
 
-        videoLikeCountTop10.stream().forEach(videoLikeCount -> {
-            videoLikeRankDtoList.add(RankDto.VideoLikeRankDto.builder()
-                    .videoId(videoLikeCount.getVideoId())
-                    .videoName(videoLikeCount.getVideoName())
-                    .likes(videoLikeCount.getLikeCount())
-                    .build());
-        });
+        RankResponseDto.VideoLikeRankResponseDto videoLikeRankResponseDto = RankResponseDto.VideoLikeRankResponseDto.builder()
+                .aggregatedAt(entry.getAggregatedAt())
+                .videoLikeRank(items)
+                .nextCursor(nextCursor(items, size, item -> new RankCursor(item.getLikes(), item.getVideoId())))
+                .build();
+
+        return videoLikeRankResponseDto;
+    }
+
+    private RankResponseDto.VideoLikeRankResponseDto aggregateVideoLikeRank(String sellerId, int size) {
+        String videoLikeRankKey = "videoLikeRank:" + sellerId;
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<RankDto.VideoLikeRankDto> videoLikeRankDtoList = sellerVideoStatsRepository.findLikeRank(sellerId, pageable);
 
         String aggregatedAt = Timestamp.valueOf(LocalDateTime.now()).toString();
 
         if (!videoLikeRankDtoList.isEmpty()) {
-            try {
-                String stringVideoLikeRankDtoList = objectMapper.writeValueAsString(videoLikeRankDtoList);
-                String value = aggregatedAt + "&" + stringVideoLikeRankDtoList;
-
-                redisTemplate.opsForValue().set(videoLikeRankKey, value);
-                redisTemplate.expire(videoLikeRankKey, 60 * 60 * 1, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                log.error("Error caching video like rank value", e);
-            }
+            rankCache.put(videoLikeRankKey, new RankCacheEntry<>(aggregatedAt, videoLikeRankDtoList, size), 60 * 60 * 1);
         }
 
         RankResponseDto.VideoLikeRankResponseDto videoLikeRankResponseDto = RankResponseDto.VideoLikeRankResponseDto.builder()
                 .aggregatedAt(aggregatedAt)
                 .videoLikeRank(videoLikeRankDtoList)
+                .nextCursor(nextCursor(videoLikeRankDtoList, size, item -> new RankCursor(item.getLikes(), item.getVideoId())))
                 .build();
 
         return videoLikeRankResponseDto;
     }
 
     @Override
-    @Transactional
+    @Timed(value = "statistics.rank", extraTags = {"rank", "adClickRank"}, histogram = true)
     public RankResponseDto.VideoAdClickRankResponseDto getAdClickRank(String sellerId, int size, boolean refresh) {
         String adClickRankKey = "adClickRank:" + sellerId;
 
-        if (!refresh && redisTemplate.hasKey(adClickRankKey)) {
-            String value = redisTemplate.opsForValue().get(adClickRankKey);
-            String aggregatedAt = value.substring(0, value.indexOf("&"));
-            String stringVideoAdClickRankDtoList = value.substring(aggregatedAt.length() + 1);
+        if (!refresh) {
+            RankResponseDto.VideoAdClickRankResponseDto videoAdClickRankResponseDto = parseAdClickRank(rankCache.get(adClickRankKey, RankDto.VideoAdClickRankDto.class), size);
 
-            List<RankDto.VideoAdClickRankDto> videoAdClickRankDtoList = new ArrayList<>();
-            try {
-                videoAdClickRankDtoList =  objectMapper.readValue(stringVideoAdClickRankDtoList, objectMapper.getTypeFactory().constructCollectionType(List.class, RankDto.VideoAdClickRankDto.class));
-            } catch (Exception e) {
-                log.error("Error parsing ad click rank value", e);
+            if (videoAdClickRankResponseDto != null) {
+                return videoAdClickRankResponseDto;
             }
+        }
 
-            if (videoAdClickRankDtoList.size() == size) {
-                RankResponseDto.VideoAdClickRankResponseDto videoAdClickRankResponseDto = RankResponseDto.VideoAdClickRankResponseDto.builder()
-                        .aggregatedAt(aggregatedAt)
-                        .videoAdClickRank(videoAdClickRankDtoList)
-                        .build();
+        return readOnlyTransactionTemplate.execute(status -> aggregateAdClickRank(sellerId, size));
+    }
 
-                return videoAdClickRankResponseDto;
-            }
+    private RankResponseDto.VideoAdClickRankResponseDto parseAdClickRank(RankCacheEntry<RankDto.VideoAdClickRankDto> entry, int size) {
+        List<RankDto.VideoAdClickRankDto> items = cachedItems(entry, size);
+        if (items == null) {
+            return null;
         }
 
-        Pageable pageable = PageRequest.of(0, size);
-        List<TotalAdClickCountDto> adClickCountTop10 = adClickCountRepository.findRankBySellerIdOrderByClickCountDesc(sellerId, pageable);
+        RankResponseDto.VideoAdClickRankResponseDto videoAdClickRankResponseDto = RankResponseDto.VideoAdClickRankResponseDto.builder()
+                .aggregatedAt(entry.getAggregatedAt())
+                .videoAdClickRank(items)
+                .nextCursor(nextCursor(items, size, item -> new RankCursor(item.getAdClicks(), item.getVideoId())))
+                .build();
 
-        List<RankDto.VideoAdClickRankDto> videoAdClickRankDtoList = new ArrayList<>();
+        return videoAdClickRankResponseDto;
+    }
 
-        adClickCountTop10.stream().forEach(adClickCount -> {
-            videoAdClickRankDtoList.add(RankDto.VideoAdClickRankDto.builder()
-                    .videoId(adClickCount.getVideo().getVideoId())
-                    .videoName(adClickCount.getVideo().getVideoName())
-                    .adClicks(adClickCount.getTotalAdClickCount())
-                    .build());
-        });
+    private RankResponseDto.VideoAdClickRankResponseDto aggregateAdClickRank(String sellerId, int size) {
+        String adClickRankKey = "adClickRank:" + sellerId;
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<RankDto.VideoAdClickRankDto> videoAdClickRankDtoList = sellerVideoStatsRepository.findAdClickRank(sellerId, pageable);
 
         String aggregatedAt = Timestamp.valueOf(LocalDateTime.now()).toString();
 
         if (!videoAdClickRankDtoList.isEmpty()) {
-            try {
-                String stringVideoAdClickRankDtoList = objectMapper.writeValueAsString(videoAdClickRankDtoList);
-                String value = aggregatedAt + "&" + stringVideoAdClickRankDtoList;
-
-                redisTemplate.opsForValue().set(adClickRankKey, value);
-                redisTemplate.expire(adClickRankKey, 60 * 60 * 1, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                log.error("Error caching ad click rank value", e);
-            }
+            rankCache.put(adClickRankKey, new RankCacheEntry<>(aggregatedAt, videoAdClickRankDtoList, size), 60 * 60 * 1);
         }
 
         RankResponseDto.VideoAdClickRankResponseDto videoAdClickRankResponseDto = RankResponseDto.VideoAdClickRankResponseDto.builder()
                 .aggregatedAt(aggregatedAt)
                 .videoAdClickRank(videoAdClickRankDtoList)
+                .nextCursor(nextCursor(videoAdClickRankDtoList, size, item -> new RankCursor(item.getAdClicks(), item.getVideoId())))
                 .build();
 
         return videoAdClickRankResponseDto;
     }
+
+    @Override
+    @Timed(value = "statistics.rank", extraTags = {"rank", "videoViewRankPage"}, histogram = true)
+    public RankResponseDto.VideoViewRankResponseDto getVideoViewRankAfter(String sellerId, String cursor, int size) {
+        RankCursor rankCursor = RankCursor.decode(cursor);
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<RankDto.VideoViewRankDto> videoViewRankDtoList = readOnlyTransactionTemplate.execute(status ->
+                sellerVideoStatsRepository.findViewRankAfter(sellerId, rankCursor.getValue(), rankCursor.getId(), pageable));
+
+        RankResponseDto.VideoViewRankResponseDto videoViewRankResponseDto = RankResponseDto.VideoViewRankResponseDto.builder()
+                .aggregatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
+                .videoViewRank(videoViewRankDtoList)
+                .nextCursor(nextCursor(videoViewRankDtoList, size, item -> new RankCursor(item.getViews(), item.getVideoId())))
+                .build();
+
+        return videoViewRankResponseDto;
+    }
+
+    @Override
+    @Timed(value = "statistics.rank", extraTags = {"rank", "tagViewRankPage"}, histogram = true)
+    public RankResponseDto.TagViewRankResponseDto getTagViewRankAfter(String sellerId, String cursor, int size) {
+        RankCursor rankCursor = RankCursor.decode(cursor);
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<RankDto.TagViewRankDto> tagViewRankDtoList = readOnlyTransactionTemplate.execute(status ->
+                sellerTagStatsRepository.findViewRankAfter(sellerId, rankCursor.getValue(), rankCursor.getId(), pageable));
+
+        RankResponseDto.TagViewRankResponseDto tagViewRankResponseDto = RankResponseDto.TagViewRankResponseDto.builder()
+                .aggregatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
+                .tagViewRank(tagViewRankDtoList)
+                .nextCursor(nextCursor(tagViewRankDtoList, size, item -> new RankCursor(item.getViews(), item.getTagId())))
+                .build();
+
+        return tagViewRankResponseDto;
+    }
+
+    @Override
+    @Timed(value = "statistics.rank", extraTags = {"rank", "videoLikeRankPage"}, histogram = true)
+    public RankResponseDto.VideoLikeRankResponseDto getVideoLikeRankAfter(String sellerId, String cursor, int size) {
+        RankCursor rankCursor = RankCursor.decode(cursor);
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<RankDto.VideoLikeRankDto> videoLikeRankDtoList = readOnlyTransactionTemplate.execute(status ->
+                sellerVideoStatsRepository.findLikeRankAfter(sellerId, rankCursor.getValue(), rankCursor.getId(), pageable));
+
+        RankResponseDto.VideoLikeRankResponseDto videoLikeRankResponseDto = RankResponseDto.VideoLikeRankResponseDto.builder()
+                .aggregatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
+                .videoLikeRank(videoLikeRankDtoList)
+                .nextCursor(nextCursor(videoLikeRankDtoList, size, item -> new RankCursor(item.getLikes(), item.getVideoId())))
+                .build();
+
+        return videoLikeRankResponseDto;
+    }
+
+    @Override
+    @Timed(value = "statistics.rank", extraTags = {"rank", "adClickRankPage"}, histogram = true)
+    public RankResponseDto.VideoAdClickRankResponseDto getAdClickRankAfter(String sellerId, String cursor, int size) {
+        RankCursor rankCursor = RankCursor.decode(cursor);
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<RankDto.VideoAdClickRankDto> videoAdClickRankDtoList = readOnlyTransactionTemplate.execute(status ->
+                sellerVideoStatsRepository.findAdClickRankAfter(sellerId, rankCursor.getValue(), rankCursor.getId(), pageable));
+
+        RankResponseDto.VideoAdClickRankResponseDto videoAdClickRankResponseDto = RankResponseDto.VideoAdClickRankResponseDto.builder()
+                .aggregatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
+                .videoAdClickRank(videoAdClickRankDtoList)
+                .nextCursor(nextCursor(videoAdClickRankDtoList, size, item -> new RankCursor(item.getAdClicks(), item.getVideoId())))
+                .build();
+
+        return videoAdClickRankResponseDto;
+    }
+
+    @Override
+    @Timed(value = "statistics.rank", extraTags = {"rank", "dashboard"}, histogram = true)
+    public RankResponseDto.DashboardResponseDto getDashboard(String sellerId, int size) {
+        List<String> keys = Arrays.asList(
+                "videoViewRank:" + sellerId,
+                "tagViewRank:" + sellerId,
+                "videoLikeRank:" + sellerId,
+                "adClickRank:" + sellerId);
+        List<RankCacheEntry<?>> entries = rankCache.getAll(keys, Arrays.asList(
+                RankDto.VideoViewRankDto.class,
+                RankDto.TagViewRankDto.class,
+                RankDto.VideoLikeRankDto.class,
+                RankDto.VideoAdClickRankDto.class));
+
+        CompletableFuture<RankResponseDto.VideoViewRankResponseDto> videoViewRank =
+                cachedOrAggregate(parseVideoViewRank(entry(entries, 0), size), () -> aggregateVideoViewRank(sellerId, size));
+        CompletableFuture<RankResponseDto.TagViewRankResponseDto> tagViewRank =
+                cachedOrAggregate(parseTagViewRank(entry(entries, 1), size), () -> aggregateTagViewRank(sellerId, size));
+        CompletableFuture<RankResponseDto.VideoLikeRankResponseDto> videoLikeRank =
+                cachedOrAggregate(parseVideoLikeRank(entry(entries, 2), size), () -> aggregateVideoLikeRank(sellerId, size));
+        CompletableFuture<RankResponseDto.VideoAdClickRankResponseDto> videoAdClickRank =
+                cachedOrAggregate(parseAdClickRank(entry(entries, 3), size), () -> aggregateAdClickRank(sellerId, size));
+
+        RankResponseDto.DashboardResponseDto dashboardResponseDto = RankResponseDto.DashboardResponseDto.builder()
+                .videoViewRank(videoViewRank.join())
+                .tagViewRank(tagViewRank.join())
+                .videoLikeRank(videoLikeRank.join())
+                .videoAdClickRank(videoAdClickRank.join())
+                .build();
+
+        return dashboardResponseDto;
+    }
+
+    // recomputes only the entries that are cached, at the size they were queried with
+    @Override
+    @Timed(value = "statistics.rank", extraTags = {"rank", "refresh"}, histogram = true)
+    public void refreshSellerRanks(String sellerId) {
+        List<RankCacheEntry<?>> entries = rankCache.getAll(Arrays.asList(
+                "videoViewRank:" + sellerId,
+                "tagViewRank:" + sellerId,
+                "videoLikeRank:" + sellerId,
+                "adClickRank:" + sellerId), Arrays.asList(
+                RankDto.VideoViewRankDto.class,
+                RankDto.TagViewRankDto.class,
+                RankDto.VideoLikeRankDto.class,
+                RankDto.VideoAdClickRankDto.class));
+
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            if (cachedLimit(entries.get(0)) > 0) {
+                aggregateVideoViewRank(sellerId, cachedLimit(entries.get(0)));
+            }
+            if (cachedLimit(entries.get(1)) > 0) {
+                aggregateTagViewRank(sellerId, cachedLimit(entries.get(1)));
+            }
+            if (cachedLimit(entries.get(2)) > 0) {
+                aggregateVideoLikeRank(sellerId, cachedLimit(entries.get(2)));
+            }
+            if (cachedLimit(entries.get(3)) > 0) {
+                aggregateAdClickRank(sellerId, cachedLimit(entries.get(3)));
+            }
+        });
+    }
+
+    private static int cachedLimit(RankCacheEntry<?> entry) {
+        return entry == null ? 0 : entry.getLimit();
+    }
+
+    // an entry serves the size it was queried with, and any size once it holds fewer items than that, i.e. all of them
+    private static <T> List<T> cachedItems(RankCacheEntry<T> entry, int size) {
+        if (entry == null) {
+            return null;
+        }
+
+        List<T> items = entry.getItems();
+        if (entry.getLimit() != size && items.size() >= entry.getLimit()) {
+            return null;
+        }
+
+        return items.size() > size ? items.subList(0, size) : items;
+    }
+
+    // getAll decodes each entry with the item type given at the same position
+    @SuppressWarnings("unchecked")
+    private static <T> RankCacheEntry<T> entry(List<RankCacheEntry<?>> entries, int index) {
+        return (RankCacheEntry<T>) entries.get(index);
+    }
+
+    // a short page is the last one; a full page may be followed by more
+    private <T> String nextCursor(List<T> items, int size, Function<T, RankCursor> position) {
+        if (items.isEmpty() || items.size() < size) {
+            return null;
+        }
+
+        return position.apply(items.get(items.size() - 1)).encode();
+    }
+
+    private <T> CompletableFuture<T> cachedOrAggregate(T cached, Supplier<T> aggregate) {
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return CompletableFuture.supplyAsync(() -> readOnlyTransactionTemplate.execute(status -> aggregate.get()), rankAggregationExecutor);
+    }
 }
@@ -0,0 +1,7 @@
+package com.travelvcommerce.statisticsservice.service;
+
+import com.travelvcommerce.statisticsservice.dto.SellerSummaryDto;
+
+public interface StatisticsSummaryService {
+    SellerSummaryDto getSellerSummary(String sellerId, int days);
+}
@@ -0,0 +1,63 @@
+package com.travelvcommerce.statisticsservice.service;
+
+import com.travelvcommerce.statisticsservice.dto.SellerSummaryDto;
+import com.travelvcommerce.statisticsservice.entity.SellerStats;
+import com.travelvcommerce.statisticsservice.repository.SellerDailyStatsRepository;
+import com.travelvcommerce.statisticsservice.repository.SellerStatsRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the seller's running totals, kept up to date by the increment paths, instead of summing their videos.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StatisticsSummaryServiceImpl implements StatisticsSummaryService {
+    private static final int MAX_DAYS = 90;
+
+    private final SellerStatsRepository sellerStatsRepository;
+    private final SellerDailyStatsRepository sellerDailyStatsRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    @Override
+    @Timed(value = "statistics.summary", histogram = true)
+    public SellerSummaryDto getSellerSummary(String sellerId, int days) {
+        if (days < 0 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 0 and " + MAX_DAYS);
+        }
+
+        return readOnlyTransactionTemplate.execute(status -> {
+            Optional<SellerStats> sellerStats = sellerStatsRepository.findBySellerId(sellerId);
+
+            List<SellerSummaryDto.DailyStatsDto> daily = days == 0 ? List.of() : sellerDailyStatsRepository
+                    .findDailyStats(sellerId, LocalDate.now().minusDays(days - 1))
+                    .stream()
+                    .map(sellerDailyStats -> SellerSummaryDto.DailyStatsDto.builder()
+                            .date(sellerDailyStats.getStatDate().toString())
+                            .views(sellerDailyStats.getViewCount())
+                            .likes(sellerDailyStats.getLikeCount())
+                            .adClicks(sellerDailyStats.getAdClickCount())
+                            .build())
+                    .collect(Collectors.toList());
+
+            SellerSummaryDto sellerSummaryDto = SellerSummaryDto.builder()
+                    .sellerId(sellerId)
+                    .views(sellerStats.map(SellerStats::getViewCount).orElse(0L))
+                    .likes(sellerStats.map(SellerStats::getLikeCount).orElse(0L))
+                    .adClicks(sellerStats.map(SellerStats::getAdClickCount).orElse(0L))
+                    .daily(daily)
+                    .build();
+
+            return sellerSummaryDto;
+        });
+    }
+}
@@ -1,19 +1,26 @@
 package com.travelvcommerce.statisticsservice.service;
 
+import com.travelvcommerce.statisticsservice.cache.RankRefresher;
+import com.travelvcommerce.statisticsservice.counter.CounterBuffer;
+import com.travelvcommerce.statisticsservice.counter.CounterMetric;
 import com.travelvcommerce.statisticsservice.dto.count.VideoCountInfoDto;
 import com.travelvcommerce.statisticsservice.entity.*;
+import com.travelvcommerce.statisticsservice.exception.LikeStoreUnavailableException;
 import com.travelvcommerce.statisticsservice.exception.UserAlreadyClickedAdException;
 import com.travelvcommerce.statisticsservice.exception.UserAlreadyLikedVideoException;
 import com.travelvcommerce.statisticsservice.exception.UserAlreadyViewedVideoException;
 import com.travelvcommerce.statisticsservice.exception.UserDidNotLikedVideoException;
+import com.travelvcommerce.statisticsservice.like.LikeMembershipStore;
 import com.travelvcommerce.statisticsservice.repository.*;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import javax.transaction.Transactional;
 import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 
@@ -23,83 +30,69 @@ import java.util.concurrent.TimeUnit;
 public class StatisticsUpdateServiceImpl implements StatisticsUpdateService {
     private final RedisTemplate<String, String> redisTemplate;
     private final VideoRepository videoRepository;
-    private final VideoLikeCountRepository videoLikeCountRepository;
-    private final LikeRepository likeRepository;
-    private final AdClickCountRepository adClickCountRepository;
+    private final AdVideoRepository adVideoRepository;
+    private final TrendingVideoService trendingVideoService;
+    private final LikeMembershipStore likeMembershipStore;
+    private final CounterBuffer counterBuffer;
+    private final RankRefresher rankRefresher;
+    private final MeterRegistry meterRegistry;
 
     @Override
-    @Transactional
+    @Timed(value = "statistics.update", extraTags = {"operation", "view"}, histogram = true)
     public VideoCountInfoDto increaseViewCount(String videoId, String userId) {
         String viewCountKey = "viewCount:" + videoId + ":" + userId;
-        if (redisTemplate.hasKey(viewCountKey)) {
+        if (!markFirst(viewCountKey)) {
+            countDedupe("view", true);
             throw new UserAlreadyViewedVideoException("User already viewed video");
         }
+        countDedupe("view", false);
 
-
-        Video video = videoRepository.findByVideoId(videoId).orElseThrow(() -> new NoSuchElementException("Video not found"));
-
-        VideoViewCount videoViewCount = video.getVideoViewCount();
         try {
-            videoViewCount.increaseViewCount();
-        } catch (RuntimeException e) {
-            log.error("Error increasing video view count", e);
-            throw new RuntimeException(e.getMessage());
-        }
+            Long id = videoRepository.findIdByVideoId(videoId).orElseThrow(() -> new NoSuchElementException("Video not found"));
 
-        try {
-            video.getTagViewCounts().stream().forEach(tagViewCount -> {
-                tagViewCount.increaseViewCount();
-            });
+            // durable once this returns; the view, tag and seller counters are written on the next flush
+            counterBuffer.increment(CounterMetric.VIEW, id);
         } catch (RuntimeException e) {
-            log.error("Error increasing tag view count", e);
-            throw new RuntimeException(e.getMessage());
+            redisTemplate.delete(viewCountKey);
+            throw e;
         }
 
         VideoCountInfoDto videoCountInfoDto = VideoCountInfoDto.builder()
                 .videoId(videoId)
-                .views(videoViewCount.getViewCount())
+                .views(-1L)
                 .likes(-1L)
                 .adClicks(-1L)
                 .build();
 
-        redisTemplate.opsForValue().set(viewCountKey, "true");
-        redisTemplate.expire(viewCountKey, 60 * 60 * 24, TimeUnit.SECONDS);
+        trendingVideoService.recordView(videoId);
+        rankRefresher.markDirty(videoId);
 
         return videoCountInfoDto;
     }
 
     @Override
-    @Transactional
+    @Timed(value = "statistics.update", extraTags = {"operation", "like"}, histogram = true)
     public VideoCountInfoDto increaseVideoLikeCount(String videoId, String userId) {
-        if (likeRepository.findByVideoIdAndUserId(videoId, userId).isPresent()) {
-            throw new UserAlreadyLikedVideoException("User already liked video");
-        }
-
-        Video video = videoRepository.findByVideoId(videoId).orElseThrow(() -> new NoSuchElementException("Video not found"));
-        VideoLikeCount videoLikeCount = video.getVideoLikeCount();
-
+        long likeCount;
         try {
-            videoLikeCount.increaseLikeCount();
-        } catch (RuntimeException e) {
-            log.error("Error increasing video like count", e);
-            throw new RuntimeException(e.getMessage());
+            likeCount = likeMembershipStore.like(videoId, userId);
+            countDedupe("like", likeCount < 0);
+            if (likeCount < 0) {
+                throw new UserAlreadyLikedVideoException("User already liked video");
+            }
+        } catch (RedisConnectionFailureException e) {
+            // the bitmap and its audit stream are the record of likes, so a like written past them would be lost
+            // or overwritten once Redis is back
+            log.error("Like membership store unavailable, rejecting like videoId={}", videoId, e);
+            throw new LikeStoreUnavailableException("Likes are temporarily unavailable", e);
         }
 
-        try {
-            Like like = Like.builder()
-                    .video(video)
-                    .userId(userId)
-                    .build();
-            likeRepository.save(like);
-        } catch (RuntimeException e) {
-            log.error("Error saving like", e);
-            throw new RuntimeException(e.getMessage());
-        }
+        rankRefresher.markDirty(videoId);
 
         VideoCountInfoDto videoCountInfoDto = VideoCountInfoDto.builder()
                 .videoId(videoId)
                 .views(-1L)
-                .likes(videoLikeCount.getLikeCount())
+                .likes(likeCount)
                 .adClicks(-1L)
                 .build();
 
@@ -107,63 +100,70 @@ public class StatisticsUpdateServiceImpl implements StatisticsUpdateService {
     }
 
     @Override
-    @Transactional
+    @Timed(value = "statistics.update", extraTags = {"operation", "unlike"}, histogram = true)
     public VideoCountInfoDto decreaseVideoLikeCount(String videoId, String userId) {
-        Like like = likeRepository.findByVideoIdAndUserId(videoId, userId).orElseThrow(() -> new UserDidNotLikedVideoException("User did not liked video"));
-
-        VideoLikeCount videoLikeCount = videoLikeCountRepository.findByVideoId(videoId).orElseThrow(() -> new NoSuchElementException("Video like count not found"));
-
+        long likeCount;
         try {
-            videoLikeCount.decreaseLikeCount();
-        } catch (RuntimeException e) {
-            log.error("Error decreasing video like count", e);
-            throw new RuntimeException(e.getMessage());
+            likeCount = likeMembershipStore.unlike(videoId, userId);
+            countDedupe("unlike", likeCount < 0);
+            if (likeCount < 0) {
+                throw new UserDidNotLikedVideoException("User did not liked video");
+            }
+        } catch (RedisConnectionFailureException e) {
+            log.error("Like membership store unavailable, rejecting unlike videoId={}", videoId, e);
+            throw new LikeStoreUnavailableException("Likes are temporarily unavailable", e);
         }
 
-        try {
-            likeRepository.delete(like);
-        } catch (RuntimeException e) {
-            log.error("Error deleting like", e);
-            throw new RuntimeException(e.getMessage());
-        }
+        rankRefresher.markDirty(videoId);
 
         VideoCountInfoDto videoCountInfoDto = VideoCountInfoDto.builder()
                 .videoId(videoId)
                 .views(-1L)
-                .likes(videoLikeCount.getLikeCount())
+                .likes(likeCount)
                 .adClicks(-1L)
                 .build();
 
         return videoCountInfoDto;
     }
 
+    // SET NX EX claims the key in one round trip; callers delete it again if the increment fails
+    private boolean markFirst(String key) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, "true", 60 * 60 * 24, TimeUnit.SECONDS));
+    }
+
+    private void countDedupe(String type, boolean duplicate) {
+        meterRegistry.counter("statistics.dedupe", "type", type, "result", duplicate ? "duplicate" : "unique").increment();
+    }
+
     @Override
-    @Transactional
+    @Timed(value = "statistics.update", extraTags = {"operation", "adClick"}, histogram = true)
     public VideoCountInfoDto increaseVideoAdClickCount(String adId, String userId) {
         String adClickCountKey = "adClickCount:" + adId + ":" + userId;
-        if (redisTemplate.hasKey(adClickCountKey)) {
+        if (!markFirst(adClickCountKey)) {
+            countDedupe("adClick", true);
             throw new UserAlreadyClickedAdException("User already clicked ad");
         }
+        countDedupe("adClick", false);
 
-        AdClickCount adClickCount = adClickCountRepository.findByAdId(adId).orElseThrow(() -> new NoSuchElementException("Ad click count not found"));
-
+        AdVideo adVideo;
         try {
-            adClickCount.increaseClickCount();
+            adVideo = adVideoRepository.findByAdId(adId).orElseThrow(() -> new NoSuchElementException("Ad click count not found"));
+
+            counterBuffer.increment(CounterMetric.AD_CLICK, adVideo.getId());
         } catch (RuntimeException e) {
-            log.error("Error increasing ad click count", e);
-            throw new RuntimeException(e.getMessage());
+            redisTemplate.delete(adClickCountKey);
+            throw e;
         }
 
+        rankRefresher.markDirty(adVideo.getVideoId());
+
         VideoCountInfoDto videoCountInfoDto = VideoCountInfoDto.builder()
-                .videoId(adClickCount.getVideoId())
+                .videoId(adVideo.getVideoId())
                 .views(-1L)
                 .likes(-1L)
-                .adClicks(adClickCount.getClickCount())
+                .adClicks(-1L)
                 .build();
 
-        redisTemplate.opsForValue().set(adClickCountKey, "true");
-        redisTemplate.expire(adClickCountKey, 60 * 60 * 24, TimeUnit.SECONDS);
-
         return videoCountInfoDto;
     }
 }
@@ -3,6 +3,8 @@ package com.travelvcommerce.statisticsservice.service;
 import com.travelvcommerce.statisticsservice.dto.RankResponseDto;
 
 public interface TagRankService {
-    RankResponseDto.TagRankResponseDto getTagRankByRegion();
-    RankResponseDto.TagRankResponseDto getTagRankByTheme();
+    RankResponseDto.TagRankResponseDto getTagRankByRegion(int size);
+    RankResponseDto.TagRankResponseDto getTagRankByTheme(int size);
+    RankResponseDto.TagRankResponseDto getTagRankByRegionAfter(String cursor, int size);
+    RankResponseDto.TagRankResponseDto getTagRankByThemeAfter(String cursor, int size);
 }
@@ -1,118 +1,167 @@
 package com.travelvcommerce.statisticsservice.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.cache.RankCache;
+import com.travelvcommerce.statisticsservice.cache.RankCacheEntry;
+import com.travelvcommerce.statisticsservice.dto.RankCursor;
 import com.travelvcommerce.statisticsservice.dto.RankDto;
 import com.travelvcommerce.statisticsservice.dto.RankResponseDto;
 import com.travelvcommerce.statisticsservice.dto.TagRankDto;
-import com.travelvcommerce.statisticsservice.repository.TagViewCountRepository;
+import com.travelvcommerce.statisticsservice.repository.TagStatsRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class TagRankServiceImpl implements TagRankService {
-    private final TagViewCountRepository tagViewCountRepository;
-    private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private static final int TOP_SIZE = 10;
+
+    private final TagStatsRepository tagStatsRepository;
+    private final RankCache rankCache;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
     @Override
-    public RankResponseDto.TagRankResponseDto getTagRankByRegion() {
+    @Timed(value = "statistics.rank", extraTags = {"rank", "tagRegionRank"}, histogram = true)
+    public RankResponseDto.TagRankResponseDto getTagRankByRegion(int size) {
+        if (size != TOP_SIZE) {
+            return getTagRank("region", size);
+        }
+
         String tagRegionRankKey = "tagRegionRank";
 
-        if (redisTemplate.hasKey(tagRegionRankKey)) {
-            String value = redisTemplate.opsForValue().get(tagRegionRankKey);
-            String aggregatedAt = value.substring(0, value.indexOf("&"));
-            String stringTagRegionRankDtoList = value.substring(value.indexOf("&") + 1);
-            List<TagRankDto> tagRegionRankDtoList = new ArrayList<>();
-            try {
-                tagRegionRankDtoList =  objectMapper.readValue(stringTagRegionRankDtoList, objectMapper.getTypeFactory().constructCollectionType(List.class, TagRankDto.class));
-            } catch (Exception e) {
-                log.error("Error parsing tag region rank value", e);
-            }
+        RankCacheEntry<TagRankDto> entry = rankCache.get(tagRegionRankKey, TagRankDto.class);
 
+        if (hasViews(entry)) {
             RankResponseDto.TagRankResponseDto tagRankResponseDto = RankResponseDto.TagRankResponseDto.builder()
-                    .tagRank(tagRegionRankDtoList)
-                    .aggregatedAt(aggregatedAt)
+                    .tagRank(entry.getItems())
+                    .aggregatedAt(entry.getAggregatedAt())
+                    .nextCursor(nextCursor(entry.getItems(), TOP_SIZE))
                     .build();
 
             return tagRankResponseDto;
         }
 
-        Pageable pageable = Pageable.ofSize(10);
-        List<TagRankDto> tagRegionRankDtoList = tagViewCountRepository.findRegionRank(pageable);
+        Pageable pageable = Pageable.ofSize(TOP_SIZE);
+        List<TagRankDto> tagRegionRankDtoList = readOnlyTransactionTemplate.execute(status -> tagStatsRepository.findRank("region", pageable));
         String aggregatedAt = Timestamp.valueOf(LocalDateTime.now()).toString();
 
-        try {
-            String stringVideoLikeRankDtoList = objectMapper.writeValueAsString(tagRegionRankDtoList);
-            String value = aggregatedAt + "&" + stringVideoLikeRankDtoList;
-
-            redisTemplate.opsForValue().set(tagRegionRankKey, value);
-            redisTemplate.expire(tagRegionRankKey, 60 * 60 * 1, TimeUnit.SECONDS);
-        } catch (Exception e) {
-            log.error("Error caching video like rank value", e);
-        }
+        rankCache.put(tagRegionRankKey, new RankCacheEntry<>(aggregatedAt, tagRegionRankDtoList), 60 * 60 * 1);
 
         RankResponseDto.TagRankResponseDto tagRankResponseDto = RankResponseDto.TagRankResponseDto.builder()
                 .tagRank(tagRegionRankDtoList)
                 .aggregatedAt(aggregatedAt)
+                .nextCursor(nextCursor(tagRegionRankDtoList, TOP_SIZE))
                 .build();
 
         return tagRankResponseDto;
     }
 
     @Override
-    public RankResponseDto.TagRankResponseDto getTagRankByTheme() {
+    @Timed(value = "statistics.rank", extraTags = {"rank", "tagThemeRank"}, histogram = true)
+    public RankResponseDto.TagRankResponseDto getTagRankByTheme(int size) {
+        if (size != TOP_SIZE) {
+            return getTagRank("theme", size);
+        }
+
         String tagThemeRankKey = "tagThemeRank";
 
-        if(redisTemplate.hasKey(tagThemeRankKey)) {
-            String value = redisTemplate.opsForValue().get(tagThemeRankKey);
-            String aggregatedAt = value.substring(0, value.indexOf("&"));
-            String stringTagThemeRankDtoList = value.substring(value.indexOf("&") + 1);
-            List<TagRankDto> tagThemeRankDtoList = new ArrayList<>();
-            try {
-                tagThemeRankDtoList =  objectMapper.readValue(stringTagThemeRankDtoList, objectMapper.getTypeFactory().constructCollectionType(List.class, TagRankDto.class));
-            } catch (Exception e) {
-                log.error("Error parsing tag theme rank value", e);
-            }
+        RankCacheEntry<TagRankDto> entry = rankCache.get(tagThemeRankKey, TagRankDto.class);
 
+        if (hasViews(entry)) {
             RankResponseDto.TagRankResponseDto tagRankResponseDto = RankResponseDto.TagRankResponseDto.builder()
-                    .tagRank(tagThemeRankDtoList)
-                    .aggregatedAt(aggregatedAt)
+                    .tagRank(entry.getItems())
+                    .aggregatedAt(entry.getAggregatedAt())
+                    .nextCursor(nextCursor(entry.getItems(), TOP_SIZE))
                     .build();
 
             return tagRankResponseDto;
         }
 
-        Pageable pageable = Pageable.ofSize(10);
-        List<TagRankDto> tagThemeRankDtoList = tagViewCountRepository.findThemeRank(pageable);
+        Pageable pageable = Pageable.ofSize(TOP_SIZE);
+        List<TagRankDto> tagThemeRankDtoList = readOnlyTransactionTemplate.execute(status -> tagStatsRepository.findRank("theme", pageable));
         String aggregatedAt = Timestamp.valueOf(LocalDateTime.now()).toString();
 
-        try {
-            String stringVideoLikeRankDtoList = objectMapper.writeValueAsString(tagThemeRankDtoList);
-            String value = aggregatedAt + "&" + stringVideoLikeRankDtoList;
-
-            redisTemplate.opsForValue().set(tagThemeRankKey, value);
-            redisTemplate.expire(tagThemeRankKey, 60 * 60 * 1, TimeUnit.SECONDS);
-        } catch (Exception e) {
-            log.error("Error caching video like rank value", e);
-        }
+        rankCache.put(tagThemeRankKey, new RankCacheEntry<>(aggregatedAt, tagThemeRankDtoList), 60 * 60 * 1);
 
         RankResponseDto.TagRankResponseDto tagRankResponseDto = RankResponseDto.TagRankResponseDto.builder()
                 .tagRank(tagThemeRankDtoList)
                 .aggregatedAt(aggregatedAt)
+                .nextCursor(nextCursor(tagThemeRankDtoList, TOP_SIZE))
+                .build();
+
+        return tagRankResponseDto;
+    }
+
+    @Override
+    @Timed(value = "statistics.rank", extraTags = {"rank", "tagRegionRankPage"}, histogram = true)
+    public RankResponseDto.TagRankResponseDto getTagRankByRegionAfter(String cursor, int size) {
+        RankCursor rankCursor = RankCursor.decode(cursor);
+
+        Pageable pageable = Pageable.ofSize(size);
+        List<TagRankDto> tagRegionRankDtoList = readOnlyTransactionTemplate.execute(status ->
+                tagStatsRepository.findRankAfter("region", rankCursor.getValue(), rankCursor.getId(), pageable));
+
+        RankResponseDto.TagRankResponseDto tagRankResponseDto = RankResponseDto.TagRankResponseDto.builder()
+                .tagRank(tagRegionRankDtoList)
+                .aggregatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
+                .nextCursor(nextCursor(tagRegionRankDtoList, size))
+                .build();
+
+        return tagRankResponseDto;
+    }
+
+    @Override
+    @Timed(value = "statistics.rank", extraTags = {"rank", "tagThemeRankPage"}, histogram = true)
+    public RankResponseDto.TagRankResponseDto getTagRankByThemeAfter(String cursor, int size) {
+        RankCursor rankCursor = RankCursor.decode(cursor);
+
+        Pageable pageable = Pageable.ofSize(size);
+        List<TagRankDto> tagThemeRankDtoList = readOnlyTransactionTemplate.execute(status ->
+                tagStatsRepository.findRankAfter("theme", rankCursor.getValue(), rankCursor.getId(), pageable));
+
+        RankResponseDto.TagRankResponseDto tagRankResponseDto = RankResponseDto.TagRankResponseDto.builder()
+                .tagRank(tagThemeRankDtoList)
+                .aggregatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
+                .nextCursor(nextCursor(tagThemeRankDtoList, size))
                 .build();
 
         return tagRankResponseDto;
     }
+
+    // only the top 10 is cached; other first-page sizes read tag_stats directly
+    private RankResponseDto.TagRankResponseDto getTagRank(String type, int size) {
+        Pageable pageable = Pageable.ofSize(size);
+        List<TagRankDto> tagRankDtoList = readOnlyTransactionTemplate.execute(status -> tagStatsRepository.findRank(type, pageable));
+
+        RankResponseDto.TagRankResponseDto tagRankResponseDto = RankResponseDto.TagRankResponseDto.builder()
+                .tagRank(tagRankDtoList)
+                .aggregatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
+                .nextCursor(nextCursor(tagRankDtoList, size))
+                .build();
+
+        return tagRankResponseDto;
+    }
+
+    // entries cached before views were part of the item cannot produce a cursor, so they are re-aggregated
+    private boolean hasViews(RankCacheEntry<TagRankDto> entry) {
+        return entry != null && entry.getItems().stream().allMatch(item -> item.getViews() != null);
+    }
+
+    private String nextCursor(List<TagRankDto> items, int size) {
+        if (items.isEmpty() || items.size() < size) {
+            return null;
+        }
+
+        TagRankDto last = items.get(items.size() - 1);
+        return new RankCursor(last.getViews(), last.getTagId()).encode();
+    }
 }
@@ -0,0 +1,9 @@
+package com.travelvcommerce.statisticsservice.service;
+
+import com.travelvcommerce.statisticsservice.dto.RankResponseDto;
+
+public interface TrendingVideoService {
+    void recordView(String videoId);
+
+    RankResponseDto.TrendingVideoRankResponseDto getTrendingVideoRank(int size);
+}
@@ -0,0 +1,163 @@
+package com.travelvcommerce.statisticsservice.service;
+
+import com.travelvcommerce.statisticsservice.dto.RankDto;
+import com.travelvcommerce.statisticsservice.dto.RankResponseDto;
+import com.travelvcommerce.statisticsservice.entity.Video;
+import com.travelvcommerce.statisticsservice.repository.VideoRepository;
+import com.travelvcommerce.statisticsservice.sketch.CountMinSketch;
+import com.travelvcommerce.statisticsservice.sketch.TopKHeavyHitters;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TrendingVideoServiceImpl implements TrendingVideoService {
+    private final RedisTemplate<String, String> redisTemplate;
+    private final VideoRepository videoRepository;
+
+    @Value("${statistics.trending.epsilon:0.001}")
+    private double epsilon;
+    @Value("${statistics.trending.delta:0.01}")
+    private double delta;
+    @Value("${statistics.trending.capacity:100}")
+    private int capacity;
+    @Value("${statistics.trending.window-minutes:30}")
+    private long windowMinutes;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private TopKHeavyHitters localHeavyHitters;
+    private long localWindow;
+    private volatile TopKHeavyHitters globalHeavyHitters;
+    private volatile String aggregatedAt;
+
+    @PostConstruct
+    void init() {
+        localWindow = currentWindow();
+        localHeavyHitters = newHeavyHitters();
+    }
+
+    @Override
+    public synchronized void recordView(String videoId) {
+        localHeavyHitters.add(videoId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "statistics.rank", extraTags = {"rank", "trendingVideoRank"}, histogram = true)
+    public RankResponseDto.TrendingVideoRankResponseDto getTrendingVideoRank(int size) {
+        TopKHeavyHitters heavyHitters = globalHeavyHitters;
+
+        if (heavyHitters == null) {
+            return RankResponseDto.TrendingVideoRankResponseDto.builder()
+                    .trendingVideoRank(new ArrayList<>())
+                    .errorBound(0)
+                    .confidence(1 - delta)
+                    .aggregatedAt(Timestamp.valueOf(LocalDateTime.now()).toString())
+                    .build();
+        }
+
+        List<TopKHeavyHitters.HeavyHitter> topK = heavyHitters.topK(size);
+        List<String> videoIds = topK.stream().map(TopKHeavyHitters.HeavyHitter::getKey).collect(Collectors.toList());
+        Map<String, String> videoNames = videoRepository.findByVideoIdIn(videoIds).stream()
+                .collect(Collectors.toMap(Video::getVideoId, Video::getVideoName));
+
+        List<RankDto.TrendingVideoRankDto> trendingVideoRankDtoList = new ArrayList<>();
+
+        topK.stream().filter(heavyHitter -> videoNames.containsKey(heavyHitter.getKey())).forEach(heavyHitter -> {
+            trendingVideoRankDtoList.add(RankDto.TrendingVideoRankDto.builder()
+                    .videoId(heavyHitter.getKey())
+                    .videoName(videoNames.get(heavyHitter.getKey()))
+                    .estimatedViews(heavyHitter.getCount())
+                    .build());
+        });
+
+        RankResponseDto.TrendingVideoRankResponseDto trendingVideoRankResponseDto = RankResponseDto.TrendingVideoRankResponseDto.builder()
+                .trendingVideoRank(trendingVideoRankDtoList)
+                .errorBound(heavyHitters.getSketch().getErrorBound())
+                .confidence(1 - heavyHitters.getSketch().getDelta())
+                .aggregatedAt(aggregatedAt)
+                .build();
+
+        return trendingVideoRankResponseDto;
+    }
+
+    // Each instance publishes its sketch for the current window and merges everyone's sketches for the
+    // current and previous window, so the global view always covers between one and two windows of views.
+    @Scheduled(fixedDelayString = "${statistics.trending.exchange-interval-ms:30000}")
+    public void exchangeSketches() {
+        long window = currentWindow();
+        long snapshotWindow;
+        TopKHeavyHitters snapshot;
+
+        synchronized (this) {
+            snapshotWindow = localWindow;
+            snapshot = localHeavyHitters.copy();
+            if (snapshotWindow != window) {
+                localWindow = window;
+                localHeavyHitters = newHeavyHitters();
+            }
+        }
+
+        String trendingSketchKey = "trendingSketch:" + snapshotWindow;
+        String encodedSnapshot = Base64.getEncoder().encodeToString(snapshot.toByteArray());
+        List<Object> results;
+
+        // publish and fetch in one pipeline; the reads see the write since commands run in order
+        try {
+            results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                    stringOperations.opsForHash().put(trendingSketchKey, instanceId, encodedSnapshot);
+                    stringOperations.expire(trendingSketchKey, windowMinutes * 3, TimeUnit.MINUTES);
+                    stringOperations.opsForHash().entries("trendingSketch:" + (window - 1));
+                    stringOperations.opsForHash().entries("trendingSketch:" + window);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error exchanging trending sketches", e);
+            return;
+        }
+
+        TopKHeavyHitters merged = newHeavyHitters();
+
+        for (Object result : results.subList(2, 4)) {
+            ((Map<?, ?>) result).forEach((sketchInstanceId, value) -> {
+                try {
+                    merged.merge(TopKHeavyHitters.fromByteArray(Base64.getDecoder().decode((String) value)));
+                } catch (Exception e) {
+                    log.error("Error merging trending sketch of instance {}", sketchInstanceId, e);
+                }
+            });
+        }
+
+        globalHeavyHitters = merged;
+        aggregatedAt = Timestamp.valueOf(LocalDateTime.now()).toString();
+    }
+
+    private TopKHeavyHitters newHeavyHitters() {
+        return new TopKHeavyHitters(new CountMinSketch(epsilon, delta), capacity);
+    }
+
+    private long currentWindow() {
+        return System.currentTimeMillis() / TimeUnit.MINUTES.toMillis(windowMinutes);
+    }
+}
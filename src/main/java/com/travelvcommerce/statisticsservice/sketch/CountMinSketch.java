@@ -0,0 +1,138 @@
+package com.travelvcommerce.statisticsservice.sketch;
+
+import java.io.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Count-Min Sketch over string keys.
+ * <p>
+ * With {@code width = ceil(e / epsilon)} and {@code depth = ceil(ln(1 / delta))}, an estimate never undercounts
+ * and overcounts by at most {@code epsilon * N} (N = total count added) with probability at least {@code 1 - delta}.
+ * Memory is {@code width * depth} counters regardless of the number of distinct keys.
+ * Sketches with the same dimensions can be merged by adding counters, which is what makes them exchangeable
+ * between instances.
+ */
+public class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private long totalCount;
+
+    public CountMinSketch(double epsilon, double delta) {
+        this((int) Math.ceil(Math.E / epsilon), (int) Math.ceil(Math.log(1 / delta)));
+    }
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new long[width * depth];
+    }
+
+    public void add(String key, long count) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + Math.floorMod(h1 + row * h2, width)] += count;
+        }
+        totalCount += count;
+    }
+
+    public long estimate(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + Math.floorMod(h1 + row * h2, width)]);
+        }
+        return min;
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge sketches of different dimensions");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    public CountMinSketch copy() {
+        CountMinSketch copy = new CountMinSketch(width, depth);
+        System.arraycopy(counters, 0, copy.counters, 0, counters.length);
+        copy.totalCount = totalCount;
+        return copy;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getEpsilon() {
+        return Math.E / width;
+    }
+
+    public double getDelta() {
+        return Math.exp(-depth);
+    }
+
+    public long getErrorBound() {
+        return (long) Math.ceil(getEpsilon() * totalCount);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(depth);
+        out.writeLong(totalCount);
+        for (long counter : counters) {
+            out.writeLong(counter);
+        }
+    }
+
+    public static CountMinSketch readFrom(DataInput in) throws IOException {
+        CountMinSketch sketch = new CountMinSketch(in.readInt(), in.readInt());
+        sketch.totalCount = in.readLong();
+        for (int i = 0; i < sketch.counters.length; i++) {
+            sketch.counters[i] = in.readLong();
+        }
+        return sketch;
+    }
+
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static CountMinSketch fromByteArray(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(bytes)))) {
+            return readFrom(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53e87fL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
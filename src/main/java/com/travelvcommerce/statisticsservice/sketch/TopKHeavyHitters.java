@@ -0,0 +1,120 @@
+package com.travelvcommerce.statisticsservice.sketch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Approximate top-K tracker: a {@link CountMinSketch} for frequencies plus a min-heap of at most {@code capacity}
+ * candidate keys ordered by their estimated count.
+ * <p>
+ * Estimates inherit the sketch bounds, so any key whose true count exceeds {@code epsilon * N} plus the current
+ * heap minimum is guaranteed a slot with probability {@code 1 - delta}. Memory is the sketch plus
+ * {@code capacity} keys, independent of how many distinct keys are seen. Not thread-safe.
+ */
+public class TopKHeavyHitters {
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<String, HeavyHitter> candidates = new HashMap<>();
+    private final PriorityQueue<HeavyHitter> heap = new PriorityQueue<>(Comparator.comparingLong(HeavyHitter::getCount));
+
+    public TopKHeavyHitters(CountMinSketch sketch, int capacity) {
+        this.sketch = sketch;
+        this.capacity = capacity;
+    }
+
+    public void add(String key) {
+        sketch.add(key, 1);
+        offer(key, sketch.estimate(key));
+    }
+
+    public void merge(TopKHeavyHitters other) {
+        sketch.merge(other.sketch);
+
+        Set<String> keys = new HashSet<>(candidates.keySet());
+        keys.addAll(other.candidates.keySet());
+
+        candidates.clear();
+        heap.clear();
+        keys.forEach(key -> offer(key, sketch.estimate(key)));
+    }
+
+    public List<HeavyHitter> topK(int k) {
+        return heap.stream()
+                .sorted(Comparator.comparingLong(HeavyHitter::getCount).reversed())
+                .limit(k)
+                .collect(Collectors.toList());
+    }
+
+    public CountMinSketch getSketch() {
+        return sketch;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public TopKHeavyHitters copy() {
+        TopKHeavyHitters copy = new TopKHeavyHitters(sketch.copy(), capacity);
+        heap.forEach(heavyHitter -> copy.offer(heavyHitter.getKey(), heavyHitter.getCount()));
+        return copy;
+    }
+
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(capacity);
+            sketch.writeTo(out);
+            out.writeInt(candidates.size());
+            for (String key : candidates.keySet()) {
+                out.writeUTF(key);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static TopKHeavyHitters fromByteArray(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(bytes)))) {
+            int capacity = in.readInt();
+            TopKHeavyHitters topK = new TopKHeavyHitters(CountMinSketch.readFrom(in), capacity);
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String key = in.readUTF();
+                topK.offer(key, topK.sketch.estimate(key));
+            }
+            return topK;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void offer(String key, long estimate) {
+        HeavyHitter current = candidates.get(key);
+        if (current != null) {
+            heap.remove(current);
+        } else if (candidates.size() >= capacity) {
+            if (heap.peek().getCount() >= estimate) {
+                return;
+            }
+            candidates.remove(heap.poll().getKey());
+        }
+
+        HeavyHitter heavyHitter = new HeavyHitter(key, estimate);
+        candidates.put(key, heavyHitter);
+        heap.add(heavyHitter);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class HeavyHitter {
+        private final String key;
+        private final long count;
+    }
+}
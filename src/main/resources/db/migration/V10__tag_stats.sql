@@ -0,0 +1,17 @@
+-- Running view total per tag over the videos that carry it, so tag rank pages seek instead of re-aggregating
+CREATE TABLE tag_stats (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    tag_id     VARCHAR(255) NOT NULL,
+    tag_name   VARCHAR(255) NOT NULL,
+    type       VARCHAR(20)  NOT NULL,
+    view_count BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT tag_stats_tag_id_unique UNIQUE (tag_id),
+    INDEX tag_stats_view_count_idx (type, view_count DESC, tag_id DESC)
+) ENGINE = InnoDB;
+
+INSERT INTO tag_stats (tag_id, tag_name, type, view_count)
+SELECT t.tag_id, MAX(t.content), MAX(t.type), SUM(tvc.view_count)
+FROM tag_view_counts tvc
+         JOIN tags t ON t.tag_id = tvc.tag_id
+GROUP BY t.tag_id;
@@ -0,0 +1,7 @@
+-- flushes no longer rotate the journal, so the checkpoint is a record count inside the segment;
+-- existing checkpoints cover their whole segment
+ALTER TABLE counter_journal_checkpoints
+    ADD COLUMN record_count INT NOT NULL DEFAULT 0 AFTER segment_sequence;
+
+UPDATE counter_journal_checkpoints
+SET record_count = 2147483647;
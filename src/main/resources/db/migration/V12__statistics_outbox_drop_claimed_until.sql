@@ -0,0 +1,4 @@
+-- only the relay lease holder claims, and it takes the oldest rows whoever claimed them before,
+-- so a claim no longer needs an expiry
+ALTER TABLE statistics_outbox
+    DROP COLUMN claimed_until;
@@ -0,0 +1,62 @@
+CREATE TABLE video_view_counts (
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    view_count BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE video_like_counts (
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    like_count BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE videos (
+    id                  BIGINT       NOT NULL AUTO_INCREMENT,
+    video_id            VARCHAR(255) NOT NULL,
+    seller_id           VARCHAR(255) NOT NULL,
+    video_name          VARCHAR(255) NOT NULL,
+    video_view_count_id BIGINT,
+    video_like_count_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT video_id_unique UNIQUE (video_id),
+    CONSTRAINT video_view_count_id_unique UNIQUE (video_view_count_id),
+    CONSTRAINT video_like_count_id_unique UNIQUE (video_like_count_id),
+    CONSTRAINT video_fk_video_view_count_id FOREIGN KEY (video_view_count_id) REFERENCES video_view_counts (id),
+    CONSTRAINT video_fk_video_like_count_id FOREIGN KEY (video_like_count_id) REFERENCES video_like_counts (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE tags (
+    id      BIGINT       NOT NULL AUTO_INCREMENT,
+    tag_id  VARCHAR(255),
+    type    VARCHAR(20)  NOT NULL,
+    content VARCHAR(20)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT tag_content_unique UNIQUE (tag_id, content)
+) ENGINE = InnoDB;
+
+CREATE TABLE tag_view_counts (
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    tag_id     VARCHAR(255),
+    video_id   VARCHAR(255),
+    view_count BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT tag_view_count_fk_tag_id FOREIGN KEY (tag_id) REFERENCES tags (tag_id),
+    CONSTRAINT tag_view_count_fk_video_id FOREIGN KEY (video_id) REFERENCES videos (video_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE likes (
+    id       BIGINT NOT NULL AUTO_INCREMENT,
+    video_id VARCHAR(255),
+    user_id  VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT like_fk_video_id FOREIGN KEY (video_id) REFERENCES videos (video_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE ad_click_counts (
+    id          BIGINT NOT NULL AUTO_INCREMENT,
+    ad_id       VARCHAR(255),
+    video_id    VARCHAR(255),
+    click_count BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ad_click_count_fk_video_id FOREIGN KEY (video_id) REFERENCES videos (video_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,38 @@
+-- Tables may already exist where the read model was created by hibernate before migrations were introduced
+CREATE TABLE IF NOT EXISTS seller_video_stats (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    seller_id      VARCHAR(255) NOT NULL,
+    video_id       VARCHAR(255) NOT NULL,
+    video_name     VARCHAR(255) NOT NULL,
+    view_count     BIGINT       NOT NULL,
+    like_count     BIGINT       NOT NULL,
+    ad_click_count BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT seller_video_stats_video_id_unique UNIQUE (video_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS seller_tag_stats (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    seller_id  VARCHAR(255) NOT NULL,
+    tag_id     VARCHAR(255) NOT NULL,
+    tag_name   VARCHAR(255) NOT NULL,
+    view_count BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT seller_tag_stats_seller_id_tag_id_unique UNIQUE (seller_id, tag_id)
+) ENGINE = InnoDB;
+
+INSERT INTO seller_video_stats (seller_id, video_id, video_name, view_count, like_count, ad_click_count)
+SELECT v.seller_id, v.video_id, v.video_name, COALESCE(vvc.view_count, 0), COALESCE(vlc.like_count, 0),
+       COALESCE((SELECT SUM(acc.click_count) FROM ad_click_counts acc WHERE acc.video_id = v.video_id), 0)
+FROM videos v
+         LEFT JOIN video_view_counts vvc ON vvc.id = v.video_view_count_id
+         LEFT JOIN video_like_counts vlc ON vlc.id = v.video_like_count_id
+WHERE NOT EXISTS (SELECT 1 FROM seller_video_stats svs WHERE svs.video_id = v.video_id);
+
+INSERT INTO seller_tag_stats (seller_id, tag_id, tag_name, view_count)
+SELECT v.seller_id, t.tag_id, MAX(t.content), SUM(tvc.view_count)
+FROM tag_view_counts tvc
+         JOIN videos v ON v.video_id = tvc.video_id
+         JOIN tags t ON t.tag_id = tvc.tag_id
+WHERE NOT EXISTS (SELECT 1 FROM seller_tag_stats sts WHERE sts.seller_id = v.seller_id AND sts.tag_id = t.tag_id)
+GROUP BY v.seller_id, t.tag_id;
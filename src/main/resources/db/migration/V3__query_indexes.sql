@@ -0,0 +1,17 @@
+-- One index per repository lookup; rank queries are covered so they never touch the clustered index
+CREATE INDEX IF NOT EXISTS videos_seller_id_idx ON videos (seller_id, video_id);
+
+CREATE INDEX IF NOT EXISTS likes_video_id_user_id_idx ON likes (video_id, user_id);
+
+CREATE INDEX IF NOT EXISTS ad_click_counts_ad_id_idx ON ad_click_counts (ad_id);
+
+CREATE INDEX IF NOT EXISTS tag_view_counts_video_id_tag_id_idx ON tag_view_counts (video_id, tag_id);
+CREATE INDEX IF NOT EXISTS tag_view_counts_tag_id_view_count_idx ON tag_view_counts (tag_id, video_id, view_count);
+
+CREATE INDEX IF NOT EXISTS tags_type_idx ON tags (type, tag_id, content);
+
+CREATE INDEX IF NOT EXISTS seller_video_stats_view_count_idx ON seller_video_stats (seller_id, view_count DESC);
+CREATE INDEX IF NOT EXISTS seller_video_stats_like_count_idx ON seller_video_stats (seller_id, like_count DESC);
+CREATE INDEX IF NOT EXISTS seller_video_stats_ad_click_count_idx ON seller_video_stats (seller_id, ad_click_count DESC);
+
+CREATE INDEX IF NOT EXISTS seller_tag_stats_view_count_idx ON seller_tag_stats (seller_id, view_count DESC);
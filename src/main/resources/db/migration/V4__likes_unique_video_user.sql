@@ -0,0 +1,24 @@
+-- Check-then-act like toggling could store the same like twice; keep the oldest row and recount those videos
+CREATE TEMPORARY TABLE duplicate_like_videos AS
+SELECT DISTINCT l1.video_id
+FROM likes l1
+         JOIN likes l2 ON l2.video_id = l1.video_id AND l2.user_id = l1.user_id AND l2.id < l1.id;
+
+DELETE l1
+FROM likes l1
+         JOIN likes l2 ON l2.video_id = l1.video_id AND l2.user_id = l1.user_id AND l2.id < l1.id;
+
+UPDATE video_like_counts vlc
+    JOIN videos v ON v.video_like_count_id = vlc.id
+    JOIN duplicate_like_videos d ON d.video_id = v.video_id
+SET vlc.like_count = (SELECT COUNT(*) FROM likes l WHERE l.video_id = v.video_id);
+
+UPDATE seller_video_stats svs
+    JOIN duplicate_like_videos d ON d.video_id = svs.video_id
+SET svs.like_count = (SELECT COUNT(*) FROM likes l WHERE l.video_id = svs.video_id);
+
+DROP TEMPORARY TABLE duplicate_like_videos;
+
+ALTER TABLE likes ADD CONSTRAINT likes_video_id_user_id_unique UNIQUE (video_id, user_id);
+
+DROP INDEX likes_video_id_user_id_idx ON likes;
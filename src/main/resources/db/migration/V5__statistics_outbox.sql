@@ -0,0 +1,14 @@
+-- statistics-update events are written here in the same transaction as the counter change and
+-- published by the relay; claim_token/claimed_until let several instances share the table without
+-- SELECT ... SKIP LOCKED
+CREATE TABLE statistics_outbox (
+    id            BIGINT        NOT NULL AUTO_INCREMENT,
+    topic         VARCHAR(255)  NOT NULL,
+    message_key   VARCHAR(255),
+    payload       VARCHAR(2000) NOT NULL,
+    created_at    DATETIME(6)   NOT NULL,
+    claim_token   VARCHAR(36),
+    claimed_until DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX statistics_outbox_claim_token_idx (claim_token)
+) ENGINE = InnoDB;
@@ -0,0 +1,8 @@
+-- last counter journal segment each node has flushed; written in the flush transaction so a replay
+-- after a crash between commit and segment deletion does not apply the same increments twice
+CREATE TABLE counter_journal_checkpoints (
+    node_id          VARCHAR(36) NOT NULL,
+    segment_sequence BIGINT      NOT NULL,
+    updated_at       DATETIME(6) NOT NULL,
+    PRIMARY KEY (node_id)
+) ENGINE = InnoDB;
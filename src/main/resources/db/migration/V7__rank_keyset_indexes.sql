@@ -0,0 +1,12 @@
+-- Rank pages continue after (metric, id) of the previous page, so the id breaks ties inside the index
+ALTER TABLE seller_video_stats
+    DROP INDEX seller_video_stats_view_count_idx,
+    DROP INDEX seller_video_stats_like_count_idx,
+    DROP INDEX seller_video_stats_ad_click_count_idx,
+    ADD INDEX seller_video_stats_view_count_idx (seller_id, view_count DESC, video_id DESC),
+    ADD INDEX seller_video_stats_like_count_idx (seller_id, like_count DESC, video_id DESC),
+    ADD INDEX seller_video_stats_ad_click_count_idx (seller_id, ad_click_count DESC, video_id DESC);
+
+ALTER TABLE seller_tag_stats
+    DROP INDEX seller_tag_stats_view_count_idx,
+    ADD INDEX seller_tag_stats_view_count_idx (seller_id, view_count DESC, tag_id DESC);
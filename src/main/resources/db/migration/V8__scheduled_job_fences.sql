@@ -0,0 +1,8 @@
+-- Highest lease fencing token that has written for each job shard; writes carrying a lower token are rejected
+CREATE TABLE scheduled_job_fences (
+    job_name      VARCHAR(100) NOT NULL,
+    shard         INT          NOT NULL,
+    fencing_token BIGINT       NOT NULL,
+    updated_at    DATETIME(6)  NOT NULL,
+    PRIMARY KEY (job_name, shard)
+) ENGINE = InnoDB;
@@ -0,0 +1,27 @@
+-- Running totals over a seller's current videos; deleting a video subtracts its counts
+CREATE TABLE seller_stats (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    seller_id      VARCHAR(255) NOT NULL,
+    view_count     BIGINT       NOT NULL DEFAULT 0,
+    like_count     BIGINT       NOT NULL DEFAULT 0,
+    ad_click_count BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT seller_stats_seller_id_unique UNIQUE (seller_id)
+) ENGINE = InnoDB;
+
+-- Increments received per seller and day; past days are a traffic record and are not touched by deletes
+CREATE TABLE seller_daily_stats (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    seller_id      VARCHAR(255) NOT NULL,
+    stat_date      DATE         NOT NULL,
+    view_count     BIGINT       NOT NULL DEFAULT 0,
+    like_count     BIGINT       NOT NULL DEFAULT 0,
+    ad_click_count BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT seller_daily_stats_seller_id_stat_date_unique UNIQUE (seller_id, stat_date)
+) ENGINE = InnoDB;
+
+INSERT INTO seller_stats (seller_id, view_count, like_count, ad_click_count)
+SELECT svs.seller_id, SUM(svs.view_count), SUM(svs.like_count), SUM(svs.ad_click_count)
+FROM seller_video_stats svs
+GROUP BY svs.seller_id;
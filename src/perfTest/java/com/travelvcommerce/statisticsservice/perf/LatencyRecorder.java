@@ -0,0 +1,72 @@
+package com.travelvcommerce.statisticsservice.perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps every latency sample per endpoint; runs are bounded so exact percentiles are affordable.
+ */
+public class LatencyRecorder {
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, int status) {
+        endpoints.computeIfAbsent(endpoint, key -> new Endpoint()).record(nanos, status);
+    }
+
+    public long errors() {
+        return endpoints.values().stream().mapToLong(endpoint -> endpoint.errors.get()).sum();
+    }
+
+    public List<Map<String, Object>> summarize(long elapsedNanos) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+
+        endpoints.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            long[] samples = entry.getValue().samples();
+            Arrays.sort(samples);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", entry.getKey());
+            row.put("requests", samples.length);
+            row.put("errors", entry.getValue().errors.get());
+            row.put("throughputPerSecond", samples.length * 1_000_000_000.0 / elapsedNanos);
+            row.put("p50Millis", percentile(samples, 0.50));
+            row.put("p95Millis", percentile(samples, 0.95));
+            row.put("p99Millis", percentile(samples, 0.99));
+            row.put("maxMillis", samples.length == 0 ? 0 : samples[samples.length - 1] / 1_000_000.0);
+            rows.add(row);
+        });
+
+        return rows;
+    }
+
+    private double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static class Endpoint {
+        private final List<Long> samples = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos, int status) {
+            samples.add(nanos);
+            if (status >= 500) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized long[] samples() {
+            return samples.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.travelvcommerce.statisticsservice.perf;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+/**
+ * Starts an embedded MariaDB and Redis once per JVM and points the application at them.
+ * Kafka comes from {@code @EmbeddedKafka} on the test class.
+ */
+public final class PerfTestEnvironment {
+    private static DB mariaDb;
+    private static RedisServer redisServer;
+    private static int mariaDbPort;
+    private static int redisPort;
+
+    private PerfTestEnvironment() {
+    }
+
+    public static synchronized void register(DynamicPropertyRegistry registry) throws Exception {
+        if (mariaDb == null) {
+            start();
+        }
+
+        registry.add("spring.datasource.url", () -> "jdbc:mariadb://localhost:" + mariaDbPort + "/statistics_service");
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.redis.host", () -> "localhost");
+        registry.add("spring.redis.port", () -> redisPort);
+    }
+
+    private static void start() throws Exception {
+        DBConfigurationBuilder configuration = DBConfigurationBuilder.newBuilder();
+        configuration.setPort(0);
+        if ("root".equals(System.getProperty("user.name"))) {
+            configuration.addArg("--user=root");
+        }
+        mariaDb = DB.newEmbeddedDB(configuration.build());
+        mariaDb.start();
+        mariaDbPort = mariaDb.getConfiguration().getPort();
+
+        try (Connection connection = DriverManager.getConnection("jdbc:mariadb://localhost:" + mariaDbPort + "/", "root", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE IF NOT EXISTS statistics_service");
+        }
+
+        redisPort = freePort();
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(PerfTestEnvironment::stop));
+    }
+
+    private static void stop() {
+        try {
+            redisServer.stop();
+            mariaDb.stop();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.travelvcommerce.statisticsservice.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.dto.RankCursor;
+import com.travelvcommerce.statisticsservice.service.*;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements Hibernate issues for each service operation, so an eager association
+ * or a lazy collection walked in a loop fails here instead of showing up as latency. Only statements on
+ * the calling thread are counted. Operations served from the second-level cache are called once first,
+ * so the measured call sees a warm cache.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.travelvcommerce.statisticsservice.perf.StatementCountTest$StatementCounter")
+@EmbeddedKafka(partitions = 1, topics = {"video-create", "video-update", "video-delete", "statistics-update"})
+@ActiveProfiles("perf")
+class StatementCountTest {
+    private static final Acknowledgment ACKNOWLEDGMENT = () -> {
+    };
+
+    @Autowired
+    private KafkaVideoInfoConsumer kafkaVideoInfoConsumer;
+
+    @Autowired
+    private StatisticsUpdateService statisticsUpdateService;
+
+    @Autowired
+    private LikeAuditService likeAuditService;
+
+    @Autowired
+    private StatisticsRankService statisticsRankService;
+
+    @Autowired
+    private TagRankService tagRankService;
+
+    @Autowired
+    private StatisticsSummaryService statisticsSummaryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String sellerId;
+    private String videoId;
+    private List<String> tagIds;
+
+    @DynamicPropertySource
+    static void environment(DynamicPropertyRegistry registry) throws Exception {
+        PerfTestEnvironment.register(registry);
+    }
+
+    @BeforeEach
+    void createVideo() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        sellerId = "seller-" + suffix;
+        videoId = "video-" + suffix;
+        tagIds = List.of("tag-a-" + suffix, "tag-b-" + suffix, "tag-c-" + suffix);
+
+        for (String tagId : tagIds) {
+            jdbcTemplate.update("INSERT INTO tags (tag_id, type, content) VALUES (?, 'region', ?)", tagId, tagId.substring(0, 5));
+        }
+
+        kafkaVideoInfoConsumer.createVideo(videoPayload(videoId, tagIds.subList(0, 2), List.of("ad-1-" + suffix, "ad-2-" + suffix)), ACKNOWLEDGMENT);
+    }
+
+    @Test
+    void createVideoStatements() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        String payload = videoPayload("video-" + suffix, tagIds.subList(0, 2), List.of("ad-1-" + suffix, "ad-2-" + suffix));
+
+        List<String> statements = count(() -> kafkaVideoInfoConsumer.createVideo(payload, ACKNOWLEDGMENT));
+
+        assertThat(statements).hasSize(13);
+    }
+
+    @Test
+    void updateVideoStatements() throws Exception {
+        // both ads and one of the two tags are replaced
+        String suffix = UUID.randomUUID().toString();
+        String payload = videoPayload(videoId, tagIds.subList(1, 3), List.of("ad-1-" + suffix, "ad-3-" + suffix));
+
+        List<String> statements = count(() -> kafkaVideoInfoConsumer.updateVideo(payload, ACKNOWLEDGMENT));
+
+        assertThat(statements).hasSize(24);
+    }
+
+    @Test
+    void deleteVideoStatements() {
+        List<String> statements = count(() -> kafkaVideoInfoConsumer.deleteVideo(videoId, ACKNOWLEDGMENT));
+
+        assertThat(statements).hasSize(27);
+    }
+
+    @Test
+    void increaseViewCountStatements() {
+        statisticsUpdateService.increaseViewCount(videoId, "user-0");
+
+        List<String> statements = count(() -> statisticsUpdateService.increaseViewCount(videoId, "user-1"));
+
+        assertThat(statements).isEmpty();
+    }
+
+    @Test
+    void increaseVideoAdClickCountStatements() {
+        String adId = "ad-1-" + videoId.substring("video-".length());
+        statisticsUpdateService.increaseVideoAdClickCount(adId, "user-0");
+
+        List<String> statements = count(() -> statisticsUpdateService.increaseVideoAdClickCount(adId, "user-1"));
+
+        assertThat(statements).isEmpty();
+    }
+
+    @Test
+    void applyLikeStatements() {
+        likeAuditService.applyLike(videoId, "user-0");
+
+        List<String> statements = count(() -> likeAuditService.applyLike(videoId, "user-1"));
+
+        assertThat(statements).hasSize(5);
+    }
+
+    @Test
+    void applyUnlikeStatements() {
+        likeAuditService.applyLike(videoId, "user-0");
+
+        List<String> statements = count(() -> likeAuditService.applyUnlike(videoId, "user-0"));
+
+        assertThat(statements).hasSize(5);
+    }
+
+    @Test
+    void sellerRankStatements() {
+        assertThat(count(() -> statisticsRankService.getVideoViewRank(sellerId, 10, true))).hasSize(1);
+        assertThat(count(() -> statisticsRankService.getVideoLikeRank(sellerId, 10, true))).hasSize(1);
+        assertThat(count(() -> statisticsRankService.getAdClickRank(sellerId, 10, true))).hasSize(1);
+        assertThat(count(() -> statisticsRankService.getTagViewRank(sellerId, 10, true))).hasSize(1);
+    }
+
+    @Test
+    void sellerRankPageStatements() {
+        String cursor = new RankCursor(Long.MAX_VALUE, "").encode();
+
+        assertThat(count(() -> statisticsRankService.getVideoViewRankAfter(sellerId, cursor, 10))).hasSize(1);
+        assertThat(count(() -> statisticsRankService.getVideoLikeRankAfter(sellerId, cursor, 10))).hasSize(1);
+        assertThat(count(() -> statisticsRankService.getAdClickRankAfter(sellerId, cursor, 10))).hasSize(1);
+        assertThat(count(() -> statisticsRankService.getTagViewRankAfter(sellerId, cursor, 10))).hasSize(1);
+    }
+
+    @Test
+    void sellerSummaryStatements() {
+        assertThat(count(() -> statisticsSummaryService.getSellerSummary(sellerId, 0))).hasSize(1);
+        assertThat(count(() -> statisticsSummaryService.getSellerSummary(sellerId, 7))).hasSize(2);
+    }
+
+    @Test
+    void tagRankPageStatements() {
+        String cursor = new RankCursor(Long.MAX_VALUE, "").encode();
+
+        assertThat(count(() -> tagRankService.getTagRankByRegionAfter(cursor, 10))).hasSize(1);
+        assertThat(count(() -> tagRankService.getTagRankByThemeAfter(cursor, 10))).hasSize(1);
+    }
+
+    private String videoPayload(String videoId, List<String> tagIds, List<String> adIds) throws Exception {
+        List<Map<String, String>> videoTags = new ArrayList<>();
+        tagIds.forEach(tagId -> videoTags.add(Map.of("tagId", tagId)));
+        List<Map<String, String>> videoAds = new ArrayList<>();
+        adIds.forEach(adId -> videoAds.add(Map.of("adId", adId)));
+
+        return objectMapper.writeValueAsString(Map.of(
+                "videoId", videoId,
+                "videoName", "name of " + videoId,
+                "sellerId", sellerId,
+                "videoTags", videoTags,
+                "videoAds", videoAds));
+    }
+
+    private List<String> count(Operation operation) {
+        StatementCounter.STATEMENTS.get().clear();
+        try {
+            operation.run();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        List<String> statements = new ArrayList<>(StatementCounter.STATEMENTS.get());
+        StatementCounter.STATEMENTS.get().clear();
+        return statements;
+    }
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    public static class StatementCounter implements StatementInspector {
+        private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.get().add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.travelvcommerce.statisticsservice.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds sellers, videos and tags through the video-create topic, then drives a weighted mix of
+ * update and rank requests at a fixed concurrency and reports throughput and latency per endpoint.
+ * Tune with -Pperf.sellers, perf.videosPerSeller, perf.tags, perf.users, perf.concurrency,
+ * perf.requests, perf.warmupRequests and perf.mix (e.g. view:50,like:20,adClick:10,rank:20).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EmbeddedKafka(partitions = 1, topics = {"video-create", "video-update", "video-delete", "statistics-update"})
+@ActiveProfiles("perf")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatisticsThroughputPerfTest {
+    private static final String BASE_PATH = "/statistics-service";
+    private static final String[] SELLER_RANKS = {"/rank/videos/views/", "/rank/videos/likes/", "/rank/videos/adClicks/", "/rank/tags/views/"};
+    private static final String[] GLOBAL_RANKS = {"/rank/videos/trending", "/rank/tags/region", "/rank/tags/theme"};
+
+    private final int sellers = Integer.getInteger("perf.sellers", 20);
+    private final int videosPerSeller = Integer.getInteger("perf.videosPerSeller", 10);
+    private final int tags = Integer.getInteger("perf.tags", 20);
+    private final int users = Integer.getInteger("perf.users", 1000);
+    private final int concurrency = Integer.getInteger("perf.concurrency", 16);
+    private final int requests = Integer.getInteger("perf.requests", 20000);
+    private final int warmupRequests = Integer.getInteger("perf.warmupRequests", 2000);
+    private final String mix = System.getProperty("perf.mix", "view:50,like:20,adClick:10,rank:20");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpClient httpClient;
+    private NavigableMap<Integer, String> operations;
+    private int totalWeight;
+
+    @DynamicPropertySource
+    static void environment(DynamicPropertyRegistry registry) throws Exception {
+        PerfTestEnvironment.register(registry);
+    }
+
+    @BeforeAll
+    void seed() throws Exception {
+        httpClient = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(concurrency))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        operations = parseMix(mix);
+
+        List<Object[]> tagRows = new ArrayList<>();
+        for (int i = 0; i < tags; i++) {
+            tagRows.add(new Object[]{tagId(i), i % 2 == 0 ? "region" : "theme", "tag " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tags (tag_id, type, content) VALUES (?, ?, ?)", tagRows);
+
+        for (int seller = 0; seller < sellers; seller++) {
+            for (int video = 0; video < videosPerSeller; video++) {
+                int index = seller * videosPerSeller + video;
+
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("videoId", videoId(index));
+                payload.put("videoName", "video " + index);
+                payload.put("sellerId", sellerId(seller));
+                payload.put("videoTags", List.of(Map.of("tagId", tagId(index % tags)), Map.of("tagId", tagId((index + 1) % tags))));
+                payload.put("videoAds", List.of(Map.of("adId", adId(index))));
+                kafkaTemplate.send("video-create", objectMapper.writeValueAsString(payload));
+            }
+        }
+        kafkaTemplate.flush();
+
+        int expected = sellers * videosPerSeller;
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seller_video_stats", Integer.class) < expected) {
+            assertThat(System.nanoTime()).as("videos seeded through video-create").isLessThan(deadline);
+            Thread.sleep(200);
+        }
+    }
+
+    @Test
+    void reportsThroughputAndLatencyPerEndpoint() throws Exception {
+        drive(warmupRequests, new LatencyRecorder());
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        long elapsed = drive(requests, recorder);
+        List<Map<String, Object>> summary = recorder.summarize(elapsed);
+
+        System.out.printf("%n%d requests, concurrency %d, mix %s, %.1f req/s%n",
+                requests, concurrency, mix, requests * 1_000_000_000.0 / elapsed);
+        System.out.printf("%-36s %8s %7s %10s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        summary.forEach(row -> System.out.printf("%-36s %8d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                row.get("endpoint"), row.get("requests"), row.get("errors"), row.get("throughputPerSecond"),
+                row.get("p50Millis"), row.get("p95Millis"), row.get("p99Millis")));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sellers", sellers);
+        report.put("videos", sellers * videosPerSeller);
+        report.put("concurrency", concurrency);
+        report.put("requests", requests);
+        report.put("mix", mix);
+        report.put("elapsedMillis", elapsed / 1_000_000);
+        report.put("endpoints", summary);
+
+        File reportDir = new File(System.getProperty("perf.reportDir", "build/reports/perf"));
+        reportDir.mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(reportDir, "results.json"), report);
+
+        assertThat(recorder.errors()).as("5xx responses").isZero();
+
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM statistics_outbox", Integer.class) > 0) {
+            assertThat(System.nanoTime()).as("statistics outbox drained").isLessThan(deadline);
+            Thread.sleep(200);
+        }
+    }
+
+    private long drive(int count, LatencyRecorder recorder) throws Exception {
+        AtomicLong remaining = new AtomicLong(count);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        send(recorder);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdown();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void send(LatencyRecorder recorder) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int video = random.nextInt(sellers * videosPerSeller);
+        String userId = "user-" + random.nextInt(users);
+        String endpoint;
+        HttpRequest.Builder request;
+
+        switch (operations.floorEntry(random.nextInt(totalWeight)).getValue()) {
+            case "view":
+                endpoint = "PUT /{videoId}/views";
+                request = put("/" + videoId(video) + "/views", Map.of("userId", userId));
+                break;
+            case "like":
+                endpoint = "PUT /{videoId}/likes";
+                request = put("/" + videoId(video) + "/likes", Map.of("userId", userId, "action", random.nextBoolean() ? "like" : "dislike"));
+                break;
+            case "adClick":
+                endpoint = "PUT /{adId}/adClicks";
+                request = put("/" + adId(video) + "/adClicks", Map.of("userId", userId));
+                break;
+            case "rank":
+                if (random.nextInt(SELLER_RANKS.length + GLOBAL_RANKS.length) < SELLER_RANKS.length) {
+                    String sellerId = sellerId(random.nextInt(sellers));
+                    String path = SELLER_RANKS[random.nextInt(SELLER_RANKS.length)];
+                    endpoint = "GET " + path + "{sellerId}";
+                    request = get(path + sellerId).header("Authorization", sellerId);
+                } else {
+                    String path = GLOBAL_RANKS[random.nextInt(GLOBAL_RANKS.length)];
+                    endpoint = "GET " + path;
+                    request = get(path);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation");
+        }
+
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (java.io.IOException e) {
+            status = 599;
+        }
+        recorder.record(endpoint, System.nanoTime() - start, status);
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + BASE_PATH + path)).GET();
+    }
+
+    private HttpRequest.Builder put(String path, Map<String, String> body) throws Exception {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + BASE_PATH + path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+
+    private NavigableMap<Integer, String> parseMix(String mix) {
+        NavigableMap<Integer, String> operations = new TreeMap<>();
+        for (String entry : mix.split(",")) {
+            String[] weight = entry.trim().split(":");
+            if (Integer.parseInt(weight[1]) > 0) {
+                operations.put(totalWeight, weight[0]);
+                totalWeight += Integer.parseInt(weight[1]);
+            }
+        }
+        return operations;
+    }
+
+    private String sellerId(int index) {
+        return "perf-seller-" + index;
+    }
+
+    private String videoId(int index) {
+        return "perf-video-" + index;
+    }
+
+    private String tagId(int index) {
+        return "perf-tag-" + index;
+    }
+
+    private String adId(int index) {
+        return "perf-ad-" + index;
+    }
+}
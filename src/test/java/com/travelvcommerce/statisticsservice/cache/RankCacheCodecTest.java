@@ -0,0 +1,44 @@
+package com.travelvcommerce.statisticsservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelvcommerce.statisticsservice.dto.RankDto;
+import com.travelvcommerce.statisticsservice.dto.TagRankDto;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankCacheCodecTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RankCacheCodec rankCacheCodec = new RankCacheCodec(objectMapper);
+
+    @Test
+    void roundTripsCurrentFormat() throws Exception {
+        RankCacheEntry<RankDto.VideoViewRankDto> entry = new RankCacheEntry<>("2023-07-01 12:00:00.0", List.of(
+                RankDto.VideoViewRankDto.builder().videoId("v1").videoName("first").views(10).build(),
+                RankDto.VideoViewRankDto.builder().videoId("v2").videoName("second").views(5).build()), 5);
+
+        byte[] value = rankCacheCodec.encode(entry);
+        RankCacheEntry<RankDto.VideoViewRankDto> decoded = rankCacheCodec.decode(value, RankDto.VideoViewRankDto.class);
+
+        assertThat(rankCacheCodec.isLegacy(value)).isFalse();
+        assertThat(decoded.getAggregatedAt()).isEqualTo("2023-07-01 12:00:00.0");
+        assertThat(decoded.getItems()).extracting(RankDto.VideoViewRankDto::getVideoId).containsExactly("v1", "v2");
+        assertThat(decoded.getItems()).extracting(RankDto.VideoViewRankDto::getViews).containsExactly(10L, 5L);
+        assertThat(decoded.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void decodesLegacyFormat() throws Exception {
+        List<TagRankDto> items = List.of(TagRankDto.builder().tagId("t1").content("Seoul").type("region").build());
+        byte[] value = ("2023-07-01 12:00:00.0&" + objectMapper.writeValueAsString(items)).getBytes(StandardCharsets.UTF_8);
+
+        RankCacheEntry<TagRankDto> decoded = rankCacheCodec.decode(value, TagRankDto.class);
+
+        assertThat(rankCacheCodec.isLegacy(value)).isTrue();
+        assertThat(decoded.getAggregatedAt()).isEqualTo("2023-07-01 12:00:00.0");
+        assertThat(decoded.getItems()).extracting(TagRankDto::getContent).containsExactly("Seoul");
+    }
+}
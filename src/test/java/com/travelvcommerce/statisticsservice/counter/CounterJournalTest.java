@@ -0,0 +1,95 @@
+package com.travelvcommerce.statisticsservice.counter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CounterJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordsOfPreviousRun() throws Exception {
+        try (CounterJournal journal = new CounterJournal(directory, 16)) {
+            journal.awaitSynced(journal.append(CounterMetric.VIEW, 7, 1, 1000), 5000);
+            journal.awaitSynced(journal.append(CounterMetric.AD_CLICK, 9, 1, 1001), 5000);
+        }
+
+        try (CounterJournal journal = new CounterJournal(directory, 16)) {
+            Map<Long, List<CounterJournal.JournalRecord>> segments = journal.readSealedSegments();
+
+            assertThat(segments).containsOnlyKeys(1L);
+            assertThat(segments.get(1L)).containsExactly(
+                    new CounterJournal.JournalRecord(CounterMetric.VIEW, 7, 1, 1000),
+                    new CounterJournal.JournalRecord(CounterMetric.AD_CLICK, 9, 1, 1001));
+        }
+    }
+
+    @Test
+    void rotatesFullSegmentsAndDeletesFlushedOnes() throws Exception {
+        try (CounterJournal journal = new CounterJournal(directory, 2)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(CounterMetric.VIEW, i, 1, i);
+            }
+            long sealed = journal.rotate();
+            assertThat(sealed).isEqualTo(3);
+            assertThat(journal.readSealedSegments().values().stream().mapToInt(List::size).sum()).isEqualTo(5);
+
+            journal.deleteThrough(sealed);
+
+            assertThat(journal.readSealedSegments()).isEmpty();
+            assertThat(segmentFiles()).hasSize(1);
+        }
+    }
+
+    @Test
+    void positionMovesToNextSegmentOnlyWhenFull() throws Exception {
+        try (CounterJournal journal = new CounterJournal(directory, 2)) {
+            journal.append(CounterMetric.VIEW, 1, 1, 1);
+            assertThat(journal.position()).isEqualTo(new CounterJournal.Position(1, 1));
+
+            journal.append(CounterMetric.VIEW, 2, 1, 2);
+            journal.append(CounterMetric.VIEW, 3, 1, 3);
+            assertThat(journal.position()).isEqualTo(new CounterJournal.Position(2, 1));
+            assertThat(journal.position()).isGreaterThan(new CounterJournal.Position(1, 2));
+        }
+    }
+
+    @Test
+    void stopsAtTornRecord() throws Exception {
+        try (CounterJournal journal = new CounterJournal(directory, 16)) {
+            journal.append(CounterMetric.VIEW, 1, 1, 1);
+            journal.append(CounterMetric.VIEW, 2, 1, 2);
+            journal.append(CounterMetric.VIEW, 3, 1, 3);
+        }
+
+        // corrupt the delta of the second record as a partial write would
+        try (FileChannel channel = FileChannel.open(segmentFiles().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), CounterJournal.RECORD_SIZE + 16);
+        }
+
+        try (CounterJournal journal = new CounterJournal(directory, 16)) {
+            assertThat(journal.readSealedSegments().get(1L))
+                    .extracting(CounterJournal.JournalRecord::getTargetId)
+                    .containsExactly(1L);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
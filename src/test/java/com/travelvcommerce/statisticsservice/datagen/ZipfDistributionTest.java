@@ -0,0 +1,54 @@
+package com.travelvcommerce.statisticsservice.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ZipfDistributionTest {
+
+    @Test
+    void probabilitiesFollowInversePowerOfRank() {
+        ZipfDistribution distribution = new ZipfDistribution(100, 1.0);
+
+        double total = 0;
+        for (int rank = 0; rank < distribution.size(); rank++) {
+            total += distribution.probability(rank);
+        }
+
+        assertThat(total).isCloseTo(1.0, within(1e-9));
+        assertThat(distribution.probability(0) / distribution.probability(9)).isCloseTo(10.0, within(1e-9));
+    }
+
+    @Test
+    void zeroExponentIsUniform() {
+        ZipfDistribution distribution = new ZipfDistribution(4, 0);
+
+        for (int rank = 0; rank < 4; rank++) {
+            assertThat(distribution.probability(rank)).isCloseTo(0.25, within(1e-9));
+        }
+    }
+
+    @Test
+    void samplesAreSkewedTowardsLowRanks() {
+        ZipfDistribution distribution = new ZipfDistribution(1000, 1.2);
+        Random random = new Random(42);
+
+        int[] counts = new int[distribution.size()];
+        for (int i = 0; i < 100_000; i++) {
+            counts[distribution.sample(random)]++;
+        }
+
+        assertThat(counts[0] / 100_000.0).isCloseTo(distribution.probability(0), within(0.01));
+        assertThat(counts[0]).isGreaterThan(counts[1]).isGreaterThan(counts[10]);
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThatThrownBy(() -> new ZipfDistribution(0, 1.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ZipfDistribution(10, -1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,28 @@
+package com.travelvcommerce.statisticsservice.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RankCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        RankCursor cursor = RankCursor.decode(new RankCursor(1234567890123L, "video:42/\u00e4").encode());
+
+        assertThat(cursor.getValue()).isEqualTo(1234567890123L);
+        assertThat(cursor.getId()).isEqualTo("video:42/\u00e4");
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        assertThat(new RankCursor(0, "???>>>").encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> RankCursor.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RankCursor.decode("bm90LWEtY3Vyc29y")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,40 @@
+package com.travelvcommerce.statisticsservice.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RedisRoundTripsTest {
+
+    @BeforeEach
+    void reset() {
+        RedisRoundTrips.reset();
+    }
+
+    @Test
+    void countsEachCall() {
+        RedisRoundTrips.count(() -> "GET");
+        RedisRoundTrips.count(() -> "SET");
+
+        assertThat(RedisRoundTrips.get()).isEqualTo(2);
+    }
+
+    @Test
+    void nestedCallsCountOnce() {
+        RedisRoundTrips.count(() -> RedisRoundTrips.count(() -> "HSET") + RedisRoundTrips.count(() -> "EXPIRE"));
+
+        assertThat(RedisRoundTrips.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failedCallDoesNotLeaveDepthBehind() {
+        assertThatThrownBy(() -> RedisRoundTrips.count(() -> {
+            throw new IllegalStateException();
+        })).isInstanceOf(IllegalStateException.class);
+        RedisRoundTrips.count(() -> "GET");
+
+        assertThat(RedisRoundTrips.get()).isEqualTo(2);
+    }
+}
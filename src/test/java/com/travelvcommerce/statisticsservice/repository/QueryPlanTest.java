@@ -0,0 +1,376 @@
+package com.travelvcommerce.statisticsservice.repository;
+
+import com.travelvcommerce.statisticsservice.counter.CounterFlushWriter;
+import com.travelvcommerce.statisticsservice.counter.CounterJournal;
+import com.travelvcommerce.statisticsservice.counter.CounterKey;
+import com.travelvcommerce.statisticsservice.counter.CounterMetric;
+import com.travelvcommerce.statisticsservice.schedule.JobFence;
+import com.travelvcommerce.statisticsservice.schedule.JobLease;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Calls every repository query, and the JDBC writers, against a disposable MariaDB schema, captures the SQL
+ * and parameters they send and runs EXPLAIN on each statement, so the plans checked are those of the SQL
+ * Hibernate actually generates. The schema is cleaned and re-seeded, so only point EXPLAIN_TEST_JDBC_URL at a
+ * scratch database. The second-level cache is off, so natural-id lookups reach the database.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.clean-disabled=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({NaturalIdLookup.class, QueryPlanTest.CaptureConfig.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "EXPLAIN_TEST_JDBC_URL", matches = ".+")
+class QueryPlanTest {
+    private static final int SELLERS = 200;
+    private static final int VIDEOS = 5000;
+    private static final int TAGS = 100;
+    private static final Pattern TABLE_ALIAS = Pattern.compile("(?i)(?:from|join|update)\\s+(\\w+)\\s+(?:as\\s+)?(\\w+)");
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private VideoRepository videoRepository;
+    @Autowired private LikeRepository likeRepository;
+    @Autowired private AdVideoRepository adVideoRepository;
+    @Autowired private AdClickCountRepository adClickCountRepository;
+    @Autowired private TagRepository tagRepository;
+    @Autowired private TagStatsRepository tagStatsRepository;
+    @Autowired private TagViewCountRepository tagViewCountRepository;
+    @Autowired private VideoLikeCountRepository videoLikeCountRepository;
+    @Autowired private SellerVideoStatsRepository sellerVideoStatsRepository;
+    @Autowired private SellerTagStatsRepository sellerTagStatsRepository;
+    @Autowired private SellerStatsRepository sellerStatsRepository;
+    @Autowired private SellerDailyStatsRepository sellerDailyStatsRepository;
+    @Autowired private StatisticsOutboxRepository statisticsOutboxRepository;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("EXPLAIN_TEST_JDBC_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("EXPLAIN_TEST_USERNAME", "root"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("EXPLAIN_TEST_PASSWORD", ""));
+    }
+
+    @BeforeAll
+    void setUp() {
+        seed();
+    }
+
+    private void seed() {
+        List<Object[]> counts = new ArrayList<>();
+        List<Object[]> videos = new ArrayList<>();
+        List<Object[]> videoStats = new ArrayList<>();
+        for (int i = 1; i <= VIDEOS; i++) {
+            counts.add(new Object[]{i, i % 997});
+            videos.add(new Object[]{"video-" + i, "seller-" + (i % SELLERS + 1), "video " + i, i, i});
+            videoStats.add(new Object[]{"seller-" + (i % SELLERS + 1), "video-" + i, "video " + i, i % 997, i % 89, i % 13});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO video_view_counts (id, view_count) VALUES (?, ?)", counts);
+        jdbcTemplate.batchUpdate("INSERT INTO video_like_counts (id, like_count) VALUES (?, ?)", counts);
+        jdbcTemplate.batchUpdate("INSERT INTO videos (video_id, seller_id, video_name, video_view_count_id, video_like_count_id) VALUES (?, ?, ?, ?, ?)", videos);
+        jdbcTemplate.batchUpdate("INSERT INTO seller_video_stats (seller_id, video_id, video_name, view_count, like_count, ad_click_count) VALUES (?, ?, ?, ?, ?, ?)", videoStats);
+        jdbcTemplate.update("INSERT INTO seller_stats (seller_id, view_count, like_count, ad_click_count) " +
+                "SELECT svs.seller_id, SUM(svs.view_count), SUM(svs.like_count), SUM(svs.ad_click_count) " +
+                "FROM seller_video_stats svs GROUP BY svs.seller_id");
+
+        List<Object[]> dailyStats = new ArrayList<>();
+        for (int i = 1; i <= SELLERS; i++) {
+            for (int day = 0; day < 30; day++) {
+                dailyStats.add(new Object[]{"seller-" + i, Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(day)), i + day, i % 7, i % 3});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO seller_daily_stats (seller_id, stat_date, view_count, like_count, ad_click_count) VALUES (?, ?, ?, ?, ?)", dailyStats);
+
+        List<Object[]> tags = new ArrayList<>();
+        for (int i = 1; i <= TAGS; i++) {
+            tags.add(new Object[]{"tag-" + i, i % 2 == 0 ? "region" : "theme", "tag " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tags (tag_id, type, content) VALUES (?, ?, ?)", tags);
+
+        List<Object[]> tagViewCounts = new ArrayList<>();
+        List<Object[]> likes = new ArrayList<>();
+        List<Object[]> adClickCounts = new ArrayList<>();
+        for (int i = 1; i <= VIDEOS; i++) {
+            for (int j = 0; j < 3; j++) {
+                tagViewCounts.add(new Object[]{"tag-" + ((i + j * 31) % TAGS + 1), "video-" + i, i % 101});
+                likes.add(new Object[]{"video-" + i, "user-" + (i * 3 + j) % 1000});
+            }
+            adClickCounts.add(new Object[]{"ad-" + i, "video-" + i, i % 13});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tag_view_counts (tag_id, video_id, view_count) VALUES (?, ?, ?)", tagViewCounts);
+        jdbcTemplate.batchUpdate("INSERT INTO likes (video_id, user_id) VALUES (?, ?)", likes);
+        jdbcTemplate.batchUpdate("INSERT INTO ad_click_counts (ad_id, video_id, click_count) VALUES (?, ?, ?)", adClickCounts);
+        jdbcTemplate.update("INSERT INTO seller_tag_stats (seller_id, tag_id, tag_name, view_count) " +
+                "SELECT v.seller_id, t.tag_id, MAX(t.content), SUM(tvc.view_count) " +
+                "FROM tag_view_counts tvc JOIN videos v ON v.video_id = tvc.video_id JOIN tags t ON t.tag_id = tvc.tag_id " +
+                "GROUP BY v.seller_id, t.tag_id");
+        jdbcTemplate.update("INSERT INTO tag_stats (tag_id, tag_name, type, view_count) " +
+                "SELECT t.tag_id, MAX(t.content), MAX(t.type), SUM(tvc.view_count) " +
+                "FROM tag_view_counts tvc JOIN tags t ON t.tag_id = tvc.tag_id GROUP BY t.tag_id");
+
+        List<Object[]> outbox = new ArrayList<>();
+        for (int i = 1; i <= VIDEOS; i++) {
+            outbox.add(new Object[]{"video-" + i, "{}", i % 10 == 0 ? null : "claim-" + i % 50});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO statistics_outbox (topic, message_key, payload, created_at, claim_token) " +
+                "VALUES ('statistics-update', ?, ?, NOW(6), ?)", outbox);
+        jdbcTemplate.update("INSERT INTO scheduled_job_fences (job_name, shard, fencing_token, updated_at) " +
+                "VALUES ('statisticsOutboxRelay', 0, 1, NOW(6))");
+
+        jdbcTemplate.execute("ANALYZE TABLE videos, video_view_counts, video_like_counts, tags, tag_view_counts, likes, " +
+                "ad_click_counts, seller_video_stats, seller_tag_stats, tag_stats, seller_stats, seller_daily_stats, statistics_outbox, scheduled_job_fences");
+    }
+
+    Stream<Arguments> queries() {
+        return Stream.of(
+                query("VideoRepository.findByVideoId", () -> videoRepository.findByVideoId("video-1")),
+                query("VideoRepository.findByVideoIdIn", () -> videoRepository.findByVideoIdIn(List.of("video-1", "video-2", "video-3"))),
+                query("VideoRepository.findSellerIdsByVideoIdIn", () -> videoRepository.findSellerIdsByVideoIdIn(List.of("video-1", "video-2", "video-3"))),
+                query("VideoRepository.findIdByVideoId", () -> videoRepository.findIdByVideoId("video-1")),
+                query("LikeRepository.findUserIdsByVideoId", () -> likeRepository.findUserIdsByVideoId("video-1")),
+                query("LikeRepository.insertIgnore", () -> likeRepository.insertIgnore("video-1", "user-3")),
+                query("LikeRepository.deleteByVideoIdAndUserId", () -> likeRepository.deleteByVideoIdAndUserId("video-1", "user-3")),
+                query("LikeRepository.deleteByVideoId", () -> likeRepository.deleteByVideoId("video-1")),
+                query("AdVideoRepository.findByAdId", () -> adVideoRepository.findByAdId("ad-1")),
+                query("AdClickCountRepository.findByVideoId", () -> adClickCountRepository.findByVideoId("video-1")),
+                query("TagRepository.findByType", () -> tagRepository.findByType("region")),
+                query("TagRepository.findByTagId", () -> tagRepository.findByTagId("tag-1")),
+                query("VideoLikeCountRepository.findCountInfoByVideoId", () -> videoLikeCountRepository.findCountInfoByVideoId("video-1")),
+                query("VideoLikeCountRepository.addLikeCountWithSellerStats", () -> videoLikeCountRepository.addLikeCountWithSellerStats("video-1", 1)),
+                query("TagStatsRepository.findRank", () -> tagStatsRepository.findRank("region", PageRequest.of(0, 10))),
+                query("TagStatsRepository.findRankAfter", () -> tagStatsRepository.findRankAfter("region", 5000, "tag-50", PageRequest.of(0, 10))),
+                query("TagStatsRepository.insertIgnore", () -> tagStatsRepository.insertIgnore("tag-1")),
+                query("TagStatsRepository.addViewCount", () -> tagStatsRepository.addViewCount("tag-2", -3)),
+                query("TagStatsRepository.deleteByTagId", () -> tagStatsRepository.deleteByTagId("tag-2")),
+                query("TagViewCountRepository.existsByTagId", () -> tagViewCountRepository.existsByTagId("tag-2")),
+                query("TagViewCountRepository.findByVideoId", () -> tagViewCountRepository.findByVideoId("video-1")),
+                query("TagViewCountRepository.existsBySellerIdAndTagId", () -> tagViewCountRepository.existsBySellerIdAndTagId("seller-2", "tag-2")),
+                query("SellerVideoStatsRepository.findViewRank", () -> sellerVideoStatsRepository.findViewRank("seller-2", PageRequest.of(0, 5))),
+                query("SellerVideoStatsRepository.findViewRankAfter", () -> sellerVideoStatsRepository.findViewRankAfter("seller-2", 40, "video-5000", PageRequest.of(0, 5))),
+                query("SellerVideoStatsRepository.findLikeRank", () -> sellerVideoStatsRepository.findLikeRank("seller-2", PageRequest.of(0, 5))),
+                query("SellerVideoStatsRepository.findLikeRankAfter", () -> sellerVideoStatsRepository.findLikeRankAfter("seller-2", 40, "video-5000", PageRequest.of(0, 5))),
+                query("SellerVideoStatsRepository.findAdClickRank", () -> sellerVideoStatsRepository.findAdClickRank("seller-2", PageRequest.of(0, 5))),
+                query("SellerVideoStatsRepository.findAdClickRankAfter", () -> sellerVideoStatsRepository.findAdClickRankAfter("seller-2", 40, "video-5000", PageRequest.of(0, 5))),
+                query("SellerVideoStatsRepository.streamBySellerId", () -> {
+                    try (Stream<?> rows = sellerVideoStatsRepository.streamBySellerId("seller-2")) {
+                        rows.forEach(row -> {
+                        });
+                    }
+                }),
+                query("SellerVideoStatsRepository.addAdClickCount", () -> sellerVideoStatsRepository.addAdClickCount("video-1", -3)),
+                query("SellerVideoStatsRepository.updateVideoName", () -> sellerVideoStatsRepository.updateVideoName("video-1", "renamed")),
+                query("SellerVideoStatsRepository.deleteByVideoId", () -> sellerVideoStatsRepository.deleteByVideoId("video-1")),
+                query("SellerTagStatsRepository.findViewRank", () -> sellerTagStatsRepository.findViewRank("seller-2", PageRequest.of(0, 5))),
+                query("SellerTagStatsRepository.findViewRankAfter", () -> sellerTagStatsRepository.findViewRankAfter("seller-2", 40, "tag-50", PageRequest.of(0, 5))),
+                query("SellerTagStatsRepository.streamBySellerId", () -> {
+                    try (Stream<?> rows = sellerTagStatsRepository.streamBySellerId("seller-2")) {
+                        rows.forEach(row -> {
+                        });
+                    }
+                }),
+                query("SellerTagStatsRepository.existsBySellerIdAndTagId", () -> sellerTagStatsRepository.existsBySellerIdAndTagId("seller-2", "tag-2")),
+                query("SellerTagStatsRepository.addViewCount", () -> sellerTagStatsRepository.addViewCount("seller-2", List.of("tag-2", "tag-33"), 1)),
+                query("SellerTagStatsRepository.deleteBySellerIdAndTagId", () -> sellerTagStatsRepository.deleteBySellerIdAndTagId("seller-2", "tag-2")),
+                query("SellerStatsRepository.insertIgnore", () -> sellerStatsRepository.insertIgnore("seller-2")),
+                query("SellerStatsRepository.findBySellerId", () -> sellerStatsRepository.findBySellerId("seller-2")),
+                query("SellerStatsRepository.addAdClickCount", () -> sellerStatsRepository.addAdClickCount("seller-2", -3)),
+                query("SellerStatsRepository.subtractVideoStats", () -> sellerStatsRepository.subtractVideoStats("video-1")),
+                query("SellerDailyStatsRepository.findDailyStats", () -> sellerDailyStatsRepository.findDailyStats("seller-2", LocalDate.of(2024, 1, 24))),
+                query("SellerDailyStatsRepository.addLikeCount", () -> sellerDailyStatsRepository.addLikeCount("video-1", LocalDate.of(2024, 1, 30), 1)),
+                query("StatisticsOutboxRepository.claim", () -> statisticsOutboxRepository.claim("claim-new", 500)),
+                query("StatisticsOutboxRepository.findByClaimTokenOrderById", () -> statisticsOutboxRepository.findByClaimTokenOrderById("claim-1")),
+                query("StatisticsOutboxRepository.releaseByIds", () -> statisticsOutboxRepository.releaseByIds(List.of(1L, 2L, 3L))),
+                query("StatisticsOutboxRepository.deleteByIds", () -> statisticsOutboxRepository.deleteByIds(List.of(1L, 2L, 3L))),
+                query("JobFence.check", () -> new JobFence(jdbcTemplate).check(lease("statisticsOutboxRelay", 0, 1))),
+                query("CounterFlushWriter.write", () -> new CounterFlushWriter(jdbcTemplate, namedParameterJdbcTemplate,
+                        new TransactionTemplate(transactionManager), videoCountInfoDto -> {
+                })
+                        .write("query-plan-test", new CounterJournal.Position(1, 1), Map.of(
+                                new CounterKey(CounterMetric.VIEW, 1), 3L,
+                                new CounterKey(CounterMetric.VIEW, 2), 3L,
+                                new CounterKey(CounterMetric.AD_CLICK, 1), 3L))));
+    }
+
+    // runs inside the test's transaction, which is rolled back, so the writes leave the seed as it was
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void usesIndex(String query, Runnable call) {
+        List<CapturedStatement> statements = StatementCapture.capture(call);
+        assertThat(statements).as("%s sent no SQL", query).isNotEmpty();
+
+        for (CapturedStatement statement : statements) {
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + statement.sql, statement.parameters.toArray());
+
+            assertThat(plan).isNotEmpty();
+            // the target row of an INSERT ... VALUES is reported as ALL although nothing is read;
+            // an index walk that LIMIT stops early is fine, one that covers the whole table is not
+            assertThat(plan).filteredOn(row -> !"INSERT".equals(row.get("select_type"))).allSatisfy(row -> {
+                assertThat(row.get("type")).as("%s scans %s: %s %s", query, row.get("table"), statement.sql, plan).isNotEqualTo("ALL");
+                if ("index".equals(row.get("type"))) {
+                    assertThat(((Number) row.get("rows")).longValue()).as("%s scans %s: %s %s", query, row.get("table"), statement.sql, plan)
+                            .isLessThan(tableRows(statement.sql, (String) row.get("table")));
+                }
+            });
+        }
+    }
+
+    private static Arguments query(String name, Runnable call) {
+        return Arguments.of(name, call);
+    }
+
+    private static JobLease lease(String job, int shard, long fencingToken) {
+        JobLease lease = mock(JobLease.class);
+        when(lease.getJob()).thenReturn(job);
+        when(lease.getShard()).thenReturn(shard);
+        when(lease.getFencingToken()).thenReturn(fencingToken);
+        return lease;
+    }
+
+    // EXPLAIN names tables by their alias in the statement
+    private long tableRows(String sql, String alias) {
+        String table = alias;
+        Matcher matcher = TABLE_ALIAS.matcher(sql);
+        while (matcher.find()) {
+            if (matcher.group(2).equals(alias)) {
+                table = matcher.group(1);
+            }
+        }
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        FlywayMigrationStrategy cleanMigrate() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? StatementCapture.wrap((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+
+    static class CapturedStatement {
+        private final String sql;
+        private final List<Object> parameters;
+
+        CapturedStatement(String sql, List<Object> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+    }
+
+    /**
+     * Records each prepared statement executed while a capture runs, with its bound parameters;
+     * a batch is recorded once per distinct SQL.
+     */
+    static class StatementCapture {
+        private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+        private static final Map<String, CapturedStatement> captured = Collections.synchronizedMap(new LinkedHashMap<>());
+        private static volatile boolean capturing;
+
+        static List<CapturedStatement> capture(Runnable call) {
+            captured.clear();
+            capturing = true;
+            try {
+                call.run();
+            } finally {
+                capturing = false;
+            }
+            return new ArrayList<>(captured.values());
+        }
+
+        static DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection ? wrap((Connection) result) : result;
+            });
+        }
+
+        private static Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return method.getName().equals("prepareStatement") ? wrap((PreparedStatement) result, (String) args[0]) : result;
+            });
+        }
+
+        private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                } else if (capturing && EXECUTE.contains(name) && (args == null || args.length == 0)) {
+                    captured.putIfAbsent(sql, new CapturedStatement(sql, new ArrayList<>(parameters.values())));
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> handler.handle(target, method, args));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private interface Handler<T> {
+            Object handle(T target, Method method, Object[] args) throws Throwable;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.travelvcommerce.statisticsservice.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKHeavyHittersTest {
+
+    @Test
+    void estimatesStayWithinErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.01);
+        Random random = new Random(42);
+        int[] counts = new int[10000];
+
+        for (int i = 0; i < 200000; i++) {
+            int key = (int) Math.min(counts.length - 1, Math.abs(random.nextGaussian()) * 500);
+            counts[key]++;
+            sketch.add("video-" + key, 1);
+        }
+
+        int outOfBound = 0;
+        for (int key = 0; key < counts.length; key++) {
+            long estimate = sketch.estimate("video-" + key);
+            assertThat(estimate).isGreaterThanOrEqualTo(counts[key]);
+            if (estimate > counts[key] + sketch.getErrorBound()) {
+                outOfBound++;
+            }
+        }
+
+        assertThat((double) outOfBound / counts.length).isLessThanOrEqualTo(sketch.getDelta());
+    }
+
+    @Test
+    void mergedInstancesReportGlobalHeavyHitters() {
+        TopKHeavyHitters first = new TopKHeavyHitters(new CountMinSketch(0.001, 0.01), 3);
+        TopKHeavyHitters second = new TopKHeavyHitters(new CountMinSketch(0.001, 0.01), 3);
+
+        addTimes(first, "a", 50);
+        addTimes(first, "b", 40);
+        addTimes(first, "c", 30);
+        addTimes(second, "c", 60);
+        addTimes(second, "d", 20);
+        addTimes(second, "e", 10);
+
+        TopKHeavyHitters merged = TopKHeavyHitters.fromByteArray(first.toByteArray());
+        merged.merge(TopKHeavyHitters.fromByteArray(second.toByteArray()));
+
+        List<String> top = merged.topK(3).stream().map(TopKHeavyHitters.HeavyHitter::getKey).collect(Collectors.toList());
+        assertThat(top).containsExactly("c", "a", "b");
+        assertThat(merged.topK(1).get(0).getCount()).isEqualTo(90);
+    }
+
+    private void addTimes(TopKHeavyHitters heavyHitters, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            heavyHitters.add(key);
+        }
+    }
+}